@@ -0,0 +1,64 @@
+package fluentconditionals.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//a batch of 100k records: a chain per element vs givenEach(..) sequential and fork/join
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BulkBenchmark {
+
+    Integer[] records;
+    Integer[] results;
+
+    @Setup
+    public void setUp() {
+        records = new Integer[100_000];
+        for (int i = 0; i < records.length; i++) records[i] = i * 31;
+        results = new Integer[records.length];
+    }
+
+    @Benchmark
+    public Integer[] chainPerElement() {
+        for (int i = 0; i < records.length; i++) {
+            results[i] = given(records[i])
+                    .when(r -> r % 3 == 0)
+                    .thenReturn(r -> r / 3)
+                    .orElse(r -> -r);
+        }
+        return results;
+    }
+
+    @Benchmark
+    public Integer[] givenEachSequential() {
+        return givenEach(records)
+                .when(r -> r % 3 == 0)
+                .thenReturn(r -> r / 3)
+                .orElse(r -> -r, results);
+    }
+
+    @Benchmark
+    public Integer[] givenEachParallel() {
+        return givenEach(records)
+                .parallel()
+                .when(r -> r % 3 == 0)
+                .thenReturn(r -> r / 3)
+                .orElse(r -> -r, results);
+    }
+
+    @Benchmark
+    public Integer[] baseline() {
+        for (int i = 0; i < records.length; i++) {
+            int r = records[i];
+            results[i] = r % 3 == 0 ? r / 3 : -r;
+        }
+        return results;
+    }
+}
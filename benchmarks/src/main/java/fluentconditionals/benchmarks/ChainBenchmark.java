@@ -0,0 +1,122 @@
+package fluentconditionals.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//every chain shape next to the if/else it replaces, single call site per benchmark (monomorphic profile)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ChainBenchmark {
+
+    @Param({"true", "false"})
+    boolean flag;
+
+    String parameter = "Greetings";
+    int high = 1000;
+    int low = 1;
+
+    //when(..).then(..).orElse ---------------------------------------------------------------------------------
+
+    @Benchmark
+    public void whenThenOrElse(Blackhole bh) {
+        when(() -> flag)
+                .then(() -> bh.consume(high))
+                .orElse(() -> bh.consume(low));
+    }
+
+    @Benchmark
+    public void whenThenOrElse_baseline(Blackhole bh) {
+        if (flag) bh.consume(high);
+        else bh.consume(low);
+    }
+
+    //when(..).thenReturn(..).orElse ---------------------------------------------------------------------------
+
+    @Benchmark
+    public Integer whenThenReturnOrElse() {
+        return when(() -> flag)
+                .thenReturn(() -> high)
+                .orElse(() -> low);
+    }
+
+    @Benchmark
+    public int whenThenReturnOrElse_baseline() {
+        if (flag) return high;
+        else return low;
+    }
+
+    //given(..).when(..).thenReturn(..).orElse -----------------------------------------------------------------
+
+    @Benchmark
+    public Integer givenWhenThenReturnOrElse() {
+        return given(parameter)
+                .when(() -> flag)
+                .thenReturn(String::length)
+                .orElse(String::hashCode);
+    }
+
+    @Benchmark
+    public int givenWhenThenReturnOrElse_baseline() {
+        String p = parameter;
+        if (flag) return p.length();
+        else return p.hashCode();
+    }
+
+    @Benchmark
+    public int givenWhenThenReturnIntOrElse() {
+        return given(parameter)
+                .when(() -> flag)
+                .thenReturnInt(String::length)
+                .orElse(String::hashCode);
+    }
+
+    //rule(..).thenReturn(..).orElse - built once, applied per call
+
+    final Function<String, Integer> rule = rule((String p) -> flag)
+            .thenReturn(String::length)
+            .orElse(String::hashCode);
+
+    @Benchmark
+    public Integer ruleThenReturnOrElse() {
+        return rule.apply(parameter);
+    }
+
+    //orElseThrow (happy path) ---------------------------------------------------------------------------------
+
+    @Benchmark
+    public Integer whenThenReturnOrElseThrow() {
+        return when(() -> true)
+                .thenReturn(() -> high)
+                .orElseThrow(IllegalStateException::new, "unreachable");
+    }
+
+    @Benchmark
+    public int whenThenReturnOrElseThrow_baseline() {
+        if (true) return high;
+        else throw new IllegalStateException("unreachable");
+    }
+
+    //thenThrow (happy path) -----------------------------------------------------------------------------------
+
+    @Benchmark
+    public int whenThenThrow() {
+        when(() -> false)
+                .thenThrow(IllegalArgumentException::new, "unreachable");
+        return high;
+    }
+
+    @Benchmark
+    public int whenThenThrow_baseline() {
+        if (false) throw new IllegalArgumentException("unreachable");
+        return high;
+    }
+}
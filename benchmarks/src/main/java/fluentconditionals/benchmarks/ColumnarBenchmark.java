@@ -0,0 +1,58 @@
+package fluentconditionals.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//a million random rows through "price > 500 ? price : 0": a chain per row vs one column(..) condition and select(..)
+//scores are per row; random data makes the per-row branch unpredictable
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ColumnarBenchmark {
+
+    static final int ROWS = 1 << 20;
+
+    int[] prices;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        prices = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) prices[i] = random.nextInt(1000);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int[] plainLoop() {
+        int[] result = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) result[i] = prices[i] > 500 ? prices[i] : 0;
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int[] chainPerRow() {
+        int[] result = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) result[i] = given(prices[i]).when(p -> p > 500).thenReturnInt(p -> p).orElse(0);
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int[] columnar() {
+        return column(prices).whenGreaterThan(500).select(prices, new int[ROWS]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int selectionOnly() {
+        return column(prices).whenGreaterThan(500).count();
+    }
+}
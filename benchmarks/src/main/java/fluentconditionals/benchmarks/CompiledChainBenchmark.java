@@ -0,0 +1,77 @@
+package fluentconditionals.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//rule.apply vs compile(rule).invokeExact vs if/else, after the shared rule code has seen many other rules
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CompiledChainBenchmark {
+
+    static final Function<Object, Object> RULE = rule((Object o) -> ((Integer) o) % 3 == 0)
+            .<Object>thenReturn(o -> (Integer) o / 3)
+            .orWhen(o -> ((Integer) o) % 3 == 1)
+            .thenReturn(o -> -(Integer) o)
+            .orElse(o -> o);
+
+    static final MethodHandle COMPILED = compile(RULE);
+
+    Integer[] inputs;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        inputs = new Integer[1024];
+        for (int i = 0; i < inputs.length; i++) inputs[i] = i * 7919;
+        pollute();
+    }
+
+    //type profile pollution: the ladder and predicate call sites inside the library see many classes
+    @SuppressWarnings("unchecked")
+    private static void pollute() {
+        Function<Object, Object>[] others = new Function[8];
+        for (int k = 0; k < others.length; k++) {
+            int m = k + 2;
+            switch (k % 4) {
+                case 0: others[k] = rule((Object o) -> o.hashCode() % m == 0).<Object>thenReturn(o -> m).orWhen(o -> o.hashCode() > m).thenReturn(o -> -m).orElse(o -> o); break;
+                case 1: others[k] = rule((Object o) -> o.toString().length() > m).<Object>thenReturn(o -> 1).orWhen(o -> o == null).thenReturn(o -> 2).orElse(o -> 3); break;
+                case 2: others[k] = rule((Object o) -> o instanceof Integer).thenReturn(o -> o).orWhen(o -> o instanceof String).thenReturn(o -> "").orElse(o -> null); break;
+                default: others[k] = rule((Object o) -> o.equals(m)).<Object>thenReturn(o -> m * 2).orWhen(o -> o.hashCode() < 0).thenReturn(o -> 0).orElse(o -> o); break;
+            }
+        }
+        Object sink = null;
+        for (int i = 0; i < 200_000; i++) sink = others[i & 7].apply(i);
+        if (sink == Boolean.TRUE) System.out.println(sink);
+    }
+
+    private Integer next() {
+        return inputs[cursor = (cursor + 1) & 1023];
+    }
+
+    @Benchmark
+    public Object ruleApply() {
+        return RULE.apply(next());
+    }
+
+    @Benchmark
+    public Object compiledInvokeExact() throws Throwable {
+        return (Object) COMPILED.invokeExact((Object) next());
+    }
+
+    @Benchmark
+    public Object baseline() {
+        int i = next();
+        if (i % 3 == 0) return i / 3;
+        else if (i % 3 == 1) return -i;
+        else return i;
+    }
+}
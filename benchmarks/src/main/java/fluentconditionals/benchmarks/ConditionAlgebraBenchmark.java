@@ -0,0 +1,58 @@
+package fluentconditionals.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//an eight-check validation gate declared in the worst order: fixed allOf(..) vs adaptiveAllOf(..)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ConditionAlgebraBenchmark {
+
+    int[] inputs;
+    int cursor;
+    int current;
+
+    BooleanSupplier fixed;
+    BooleanSupplier adaptive;
+
+    @Setup
+    public void setUp() {
+        inputs = new int[1024];
+        for (int i = 0; i < inputs.length; i++) inputs[i] = i * 7919;
+        //expensive and rarely failing first, cheap and often failing last
+        BooleanSupplier[] checks = new BooleanSupplier[8];
+        for (int k = 0; k < checks.length; k++) {
+            int work = (checks.length - k) * 16;
+            int modulus = checks.length + 2 - k;
+            checks[k] = () -> spin(work) && current % modulus != 0;
+        }
+        fixed = allOf(checks);
+        adaptive = adaptiveAllOf(checks);
+    }
+
+    static boolean spin(int work) {
+        int x = 0;
+        for (int i = 0; i < work; i++) x += i * i;
+        return x >= 0;
+    }
+
+    @Benchmark
+    public boolean fixedOrder() {
+        current = inputs[cursor = (cursor + 1) & 1023];
+        return when(fixed).thenReturnBoolean(true).orElse(false);
+    }
+
+    @Benchmark
+    public boolean adaptiveOrder() {
+        current = inputs[cursor = (cursor + 1) & 1023];
+        return when(adaptive).thenReturnBoolean(true).orElse(false);
+    }
+}
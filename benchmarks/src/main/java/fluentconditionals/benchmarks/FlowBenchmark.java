@@ -0,0 +1,165 @@
+package fluentconditionals.benchmarks;
+
+import fluentconditionals.ConditionalProcessor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//items per second through process(..) / split(..) with a synchronous upstream, against a subscriber calling the rule itself
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FlowBenchmark {
+
+    static final int ITEMS = 100_000;
+
+    static final Function<Integer, Integer> RULE = rule((Integer i) -> (i & 1) == 0)
+            .thenReturn(i -> i >> 1)
+            .orElse(i -> -i);
+
+    @Param({"16", "256"})
+    int batchSize;
+
+    Integer[] items;
+
+    @Setup
+    public void setUp() {
+        items = new Integer[ITEMS];
+        for (int i = 0; i < ITEMS; i++) items[i] = i;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void processed(Blackhole blackhole) {
+        ConditionalProcessor<Integer, Integer> processor = process(RULE, batchSize);
+        processor.subscribe(new Sink(blackhole, batchSize));
+        new Source(items).subscribe(processor);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void splitInTwo(Blackhole blackhole) {
+        ConditionalProcessor<Integer, Integer> processor = split(RULE, batchSize);
+        processor.whenTrue().subscribe(new Sink(blackhole, batchSize));
+        processor.whenFalse().subscribe(new Sink(blackhole, batchSize));
+        new Source(items).subscribe(processor);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void baseline(Blackhole blackhole) {
+        Flow.Subscriber<Integer> mapping = new Flow.Subscriber<Integer>() {
+            Flow.Subscription subscription;
+            int received;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(batchSize);
+            }
+
+            @Override
+            public void onNext(Integer item) {
+                blackhole.consume(RULE.apply(item));
+                if (++received == batchSize) {
+                    received = 0;
+                    subscription.request(batchSize);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        };
+        new Source(items).subscribe(mapping);
+    }
+
+    //emits on the requesting thread, trampolined so that re-entrant requests don't recurse
+    static final class Source implements Flow.Publisher<Integer>, Flow.Subscription {
+        private final Integer[] items;
+        private Flow.Subscriber<? super Integer> subscriber;
+        private int index;
+        private long demand;
+        private boolean emitting;
+        private boolean cancelled;
+
+        Source(Integer[] items) {
+            this.items = items;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Integer> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void request(long n) {
+            demand += n;
+            if (emitting) return;
+            emitting = true;
+            while (demand > 0 && index < items.length && !cancelled) {
+                demand--;
+                subscriber.onNext(items[index++]);
+            }
+            emitting = false;
+            if (index == items.length && !cancelled) {
+                cancelled = true;
+                subscriber.onComplete();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    //requests in batches, like a downstream that keeps up
+    static final class Sink implements Flow.Subscriber<Integer> {
+        private final Blackhole blackhole;
+        private final int batchSize;
+        private Flow.Subscription subscription;
+        private int received;
+
+        Sink(Blackhole blackhole, int batchSize) {
+            this.blackhole = blackhole;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(batchSize);
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            blackhole.consume(item);
+            if (++received == batchSize) {
+                received = 0;
+                subscription.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package fluentconditionals.benchmarks;
+
+import fluentconditionals.FlightRecorderInstrumentation;
+import fluentconditionals.Instrumentation;
+import fluentconditionals.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//cost of named(..): with nothing installed, named must score the same as unnamed within the error
+//metrics shows the price of the counters and histograms, flightRecorder the price of evaluations that stay under the event threshold
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class InstrumentationBenchmark {
+
+    @Param({"none", "metrics", "flightRecorder"})
+    String instrumentation;
+
+    String parameter = "Greetings";
+    int threshold = 5;
+
+    @Setup
+    public void setUp() {
+        switch (instrumentation) {
+            case "metrics":
+                Instrumentation.install(new Metrics());
+                break;
+            case "flightRecorder":
+                Instrumentation.install(new FlightRecorderInstrumentation(Duration.ofMillis(1)));
+                break;
+            default:
+                Instrumentation.uninstall();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Instrumentation.uninstall();
+    }
+
+    @Benchmark
+    public int unnamed() {
+        return given(parameter)
+                .when(s -> s.length() > threshold)
+                .thenReturnInt(String::length)
+                .orElse(String::hashCode);
+    }
+
+    @Benchmark
+    public int named() {
+        return given(parameter)
+                .when(s -> s.length() > threshold)
+                .named("benchmark.lengthGate")
+                .thenReturnInt(String::length)
+                .orElse(String::hashCode);
+    }
+
+    @Benchmark
+    public int baseline() {
+        String p = parameter;
+        return p.length() > threshold ? p.length() : p.hashCode();
+    }
+}
@@ -0,0 +1,78 @@
+package fluentconditionals.benchmarks;
+
+import fluentconditionals.FluentConditionals.SelectThenReturn;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//else-if ladders: nested chains vs rule(..).orWhen(..) ladder vs keyed select(..), as the number of arms grows
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class LadderBenchmark {
+
+    @Param({"4", "32", "256"})
+    int arms;
+
+    Integer[] inputs;
+    Function<Integer, Integer> ladder;
+    Function<Integer, Integer> select;
+    int cursor;
+
+    @Setup
+    public void setUp() {
+        inputs = new Integer[1024];
+        for (int i = 0; i < inputs.length; i++) inputs[i] = (i * 7919) % (arms + 1);
+
+        RuleThenReturn<Integer, Integer> rule = rule((Integer i) -> i == 0).thenReturn(i -> 0);
+        for (int arm = 1; arm < arms; arm++) {
+            int k = arm;
+            rule = rule.orWhen(i -> i == k).thenReturn(i -> k * 2);
+        }
+        ladder = rule.orElse(-1);
+
+        SelectThenReturn<Integer, Integer, Integer> keyed = select((Integer i) -> i).whenEquals(0).thenReturn(i -> 0);
+        for (int arm = 1; arm < arms; arm++) {
+            int k = arm;
+            keyed = keyed.orWhenEquals(k).thenReturn(i -> k * 2);
+        }
+        select = keyed.orElse(-1);
+    }
+
+    private Integer next() {
+        return inputs[cursor = (cursor + 1) & 1023];
+    }
+
+    @Benchmark
+    public Integer ruleLadder() {
+        return ladder.apply(next());
+    }
+
+    @Benchmark
+    public Integer keyedSelect() {
+        return select.apply(next());
+    }
+
+    //what users write today: one nested chain per level, only practical for a handful of arms
+    @Benchmark
+    public Integer nestedChains() {
+        Integer i = next();
+        return when(i == 0).thenReturn(0)
+                .orElse(() -> when(i == 1).thenReturn(2)
+                        .orElse(() -> when(i == 2).thenReturn(4)
+                                .orElse(() -> when(i == 3).thenReturn(6)
+                                        .orElse(-1))));
+    }
+
+    @Benchmark
+    public int baseline() {
+        int i = next();
+        return i < arms ? i * 2 : -1;
+    }
+}
@@ -0,0 +1,133 @@
+package fluentconditionals.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//same chain shapes, but the library code sees many condition/branch classes, as it does in production
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MegamorphicBenchmark {
+
+    static final int SIZE = 1024;
+
+    int[] values;
+    BooleanSupplier[] conditions;
+    Supplier<Integer>[] branches;
+    int cursor;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        values = new int[SIZE];
+        conditions = new BooleanSupplier[SIZE];
+        branches = new Supplier[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            int v = i * 31 % 97;
+            values[i] = v;
+            conditions[i] = condition(i % 8, v);
+            branches[i] = branch(i % 8, v);
+        }
+    }
+
+    //eight distinct lambda classes per interface
+    private static BooleanSupplier condition(int kind, int v) {
+        switch (kind) {
+            case 0: return () -> v > 10;
+            case 1: return () -> v < 50;
+            case 2: return () -> (v & 1) == 0;
+            case 3: return () -> v % 3 == 0;
+            case 4: return () -> v != 42;
+            case 5: return () -> v >= 20 && v <= 80;
+            case 6: return () -> Integer.bitCount(v) > 2;
+            default: return () -> v == 7 || v > 90;
+        }
+    }
+
+    private static Supplier<Integer> branch(int kind, int v) {
+        switch (kind) {
+            case 0: return () -> v;
+            case 1: return () -> v + 1;
+            case 2: return () -> v * 2;
+            case 3: return () -> v - 3;
+            case 4: return () -> v ^ 5;
+            case 5: return () -> v << 1;
+            case 6: return () -> v >>> 1;
+            default: return () -> -v;
+        }
+    }
+
+    private static boolean inline(int kind, int v) {
+        switch (kind) {
+            case 0: return v > 10;
+            case 1: return v < 50;
+            case 2: return (v & 1) == 0;
+            case 3: return v % 3 == 0;
+            case 4: return v != 42;
+            case 5: return v >= 20 && v <= 80;
+            case 6: return Integer.bitCount(v) > 2;
+            default: return v == 7 || v > 90;
+        }
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (SIZE - 1);
+    }
+
+    @Benchmark
+    public Integer whenThenReturnOrElse() {
+        int i = next();
+        return when(conditions[i])
+                .thenReturn(branches[i])
+                .orElse(0);
+    }
+
+    @Benchmark
+    public void whenThenOrElse() {
+        int i = next();
+        when(conditions[i])
+                .then(() -> cursor++)
+                .orElse(doNothing);
+    }
+
+    @Benchmark
+    public Integer givenWhenThenReturnOrElse() {
+        int i = next();
+        return given(values[i])
+                .when(conditions[i])
+                .thenReturn(v -> v + 1)
+                .orElse(v -> v - 1);
+    }
+
+    @Benchmark
+    public Integer whenThenReturnOrElseThrow() {
+        int i = next();
+        return when(() -> true)
+                .thenReturn(branches[i])
+                .orElseThrow(IllegalStateException::new, "unreachable");
+    }
+
+    @Benchmark
+    public int whenThenThrow() {
+        int i = next();
+        when(() -> !conditions[i].getAsBoolean() && conditions[i].getAsBoolean())
+                .thenThrow(IllegalArgumentException::new, "unreachable");
+        return i;
+    }
+
+    @Benchmark
+    public int baseline() {
+        int i = next();
+        int v = values[i];
+        if (inline(i % 8, v)) return v;
+        else return 0;
+    }
+}
@@ -0,0 +1,61 @@
+package fluentconditionals.benchmarks;
+
+import fluentconditionals.Failure;
+import fluentconditionals.Result;
+import fluentconditionals.StacklessException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//the rejection path of an input guard: regular exceptions vs stackless/preallocated ones vs a failure value
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RejectionBenchmark {
+
+    static final Failure INVALID = failure("Invalid input");
+    static final StacklessException PREALLOCATED = new StacklessException("Invalid input");
+
+    String input = "";
+
+    @Benchmark
+    public Object regularException() {
+        try {
+            return given(input).whenNot(String::isEmpty).thenReturn(String::length)
+                    .orElseThrow(IllegalArgumentException::new, "Invalid input");
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object stacklessException() {
+        try {
+            return given(input).whenNot(String::isEmpty).thenReturn(String::length)
+                    .orElseThrow(INVALID);
+        } catch (StacklessException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object preallocatedException() {
+        try {
+            return given(input).whenNot(String::isEmpty).thenReturn(String::length)
+                    .orElseThrowE(PREALLOCATED);
+        } catch (StacklessException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Result<Integer> failureValue() {
+        return given(input).whenNot(String::isEmpty).thenReturn(String::length)
+                .orElseFail(INVALID);
+    }
+}
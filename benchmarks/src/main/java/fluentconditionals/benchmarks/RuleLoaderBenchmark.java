@@ -0,0 +1,65 @@
+package fluentconditionals.benchmarks;
+
+import fluentconditionals.RuleLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//loading 5k rules from text vs from the snapshot cache; single shot is the cold start, average time the warmed-up reload
+@BenchmarkMode({Mode.AverageTime, Mode.SingleShotTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RuleLoaderBenchmark {
+
+    static final class Order {
+        double amount;
+        String country;
+        boolean vip;
+    }
+
+    @Param({"5000"})
+    int rules;
+
+    @Param({"false", "true"})
+    boolean snapshotCache;
+
+    Path directory;
+    RuleLoader<Order> loader;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("rules");
+        Path file = directory.resolve("rules.txt");
+        List<String> lines = new ArrayList<>(rules);
+        for (int i = 0; i < rules; i++) {
+            lines.add("rule." + i + ": amount >= " + i + " && (country == \"PL\" || !vip) then " + (i * 0.01) + " else throw \"Amount under " + i + "\"");
+        }
+        Files.write(file, lines);
+        loader = ruleLoader(file);
+        loader.number("amount", o -> o.amount).text("country", o -> o.country).flag("vip", o -> o.vip);
+        if (snapshotCache) loader.snapshotCache(directory.resolve("rules.cache")).reload();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public int reload() {
+        return loader.reload().size();
+    }
+}
@@ -0,0 +1,86 @@
+package fluentconditionals.benchmarks;
+
+import fluentconditionals.RuleSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//10k named rules per event: scanning every rule vs the hash/range indexed RuleSet
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RuleSetBenchmark {
+
+    static final class Event {
+        final int customer;
+        final long amount;
+
+        Event(int customer, long amount) {
+            this.customer = customer;
+            this.amount = amount;
+        }
+    }
+
+    @Param({"10000"})
+    int rules;
+
+    Event[] events;
+    List<Predicate<Event>> scanned;
+    RuleSet<Event> indexed;
+    int cursor;
+
+    @Setup
+    public void setUp() {
+        events = new Event[1024];
+        for (int i = 0; i < events.length; i++) events[i] = new Event((i * 31) % rules, (i * 97) % 10_000);
+
+        scanned = new ArrayList<>();
+        indexed = ruleSet();
+        RuleSet.HashAttribute<Event, Integer> customer = indexed.hashIndex("customer", e -> e.customer);
+        RuleSet.RangeAttribute<Event> amount = indexed.rangeIndex("amount", e -> e.amount);
+        indexed.update(set -> {
+            for (int k = 0; k < rules; k++) {
+                int id = k;
+                long limit = 9_000 + k % 1_000;
+                if (k % 10 == 0) {
+                    scanned.add(e -> e.amount >= limit && (e.customer & 1) == (id & 1));
+                    set.rule("limit-" + k).whereBetween(amount, limit, Long.MAX_VALUE).when(e -> (e.customer & 1) == (id & 1)).then(e -> {});
+                } else {
+                    scanned.add(e -> e.customer == id && e.amount > 5_000);
+                    set.rule("customer-" + k).whereEquals(customer, id).when(e -> e.amount > 5_000).then(e -> {});
+                }
+            }
+        });
+    }
+
+    private Event next() {
+        return events[cursor = (cursor + 1) & 1023];
+    }
+
+    @Benchmark
+    public void scanAll(Blackhole blackhole) {
+        Event event = next();
+        int fired = 0;
+        for (Predicate<Event> rule : scanned) if (rule.test(event)) fired++;
+        blackhole.consume(fired);
+    }
+
+    @Benchmark
+    public int indexedFireAll() {
+        return indexed.fireAll(next());
+    }
+
+    @Benchmark
+    public String indexedFireFirst() {
+        return indexed.fireFirst(next());
+    }
+}
@@ -0,0 +1,52 @@
+package fluentconditionals.benchmarks;
+
+import fluentconditionals.Sampling;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//when(shouldLog()) under contention: the usual shared AtomicLong sampler vs the Sampling conditions
+//run with -t 1, -t 4, -t 64 ... to see how each scales; the default is one thread per core
+//add -prof gc to check that none of the whenX(..) chains allocates
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class SamplingBenchmark {
+
+    static final long N = 100;
+
+    static final AtomicLong COUNTER = new AtomicLong();
+    static final BooleanSupplier ATOMIC_EVERY_NTH = () -> COUNTER.getAndIncrement() % N == 0;
+
+    static final Sampling.Probability ONE_PERCENT = sampled(1.0 / N);
+    static final Sampling.EveryNth EVERY_NTH = everyNth(N);
+    static final Sampling.RateLimit THOUSAND_A_SECOND = atMostPerSecond(1000);
+
+    @Benchmark
+    public int atomicLongBaseline() {
+        return when(ATOMIC_EVERY_NTH).thenReturnInt(1).orElse(0);
+    }
+
+    @Benchmark
+    public int threadLocalSampling() {
+        return whenSampled(ONE_PERCENT).thenReturnInt(1).orElse(0);
+    }
+
+    @Benchmark
+    public int stripedEveryNth() {
+        return whenEveryNth(EVERY_NTH).thenReturnInt(1).orElse(0);
+    }
+
+    @Benchmark
+    public int tokenBucket() {
+        return whenAtMostPerSecond(THOUSAND_A_SECOND).thenReturnInt(1).orElse(0);
+    }
+}
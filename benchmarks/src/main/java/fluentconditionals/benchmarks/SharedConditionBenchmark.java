@@ -0,0 +1,56 @@
+package fluentconditionals.benchmarks;
+
+import fluentconditionals.EvaluationContext;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//one "request" running a dozen chains over three costly conditions: recomputed per chain vs shared within an EvaluationContext
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SharedConditionBenchmark {
+
+    static final int CHAINS = 12;
+
+    static boolean costly(int seed) {
+        Blackhole.consumeCPU(64);
+        return (seed & 1) == 0;
+    }
+
+    static final BooleanSupplier PREMIUM = () -> costly(0);
+    static final BooleanSupplier FEATURE = () -> costly(1);
+    static final BooleanSupplier REGION = () -> costly(2);
+
+    static final EvaluationContext.Shared SHARED_PREMIUM = shared(PREMIUM);
+    static final EvaluationContext.Shared SHARED_FEATURE = shared(FEATURE);
+    static final EvaluationContext.Shared SHARED_REGION = shared(REGION);
+
+    @Benchmark
+    public int recomputed() {
+        return request(PREMIUM, FEATURE, REGION);
+    }
+
+    @Benchmark
+    public int sharedInContext() {
+        try (EvaluationContext context = EvaluationContext.open()) {
+            return request(SHARED_PREMIUM, SHARED_FEATURE, SHARED_REGION);
+        }
+    }
+
+    private static int request(BooleanSupplier premium, BooleanSupplier feature, BooleanSupplier region) {
+        int sum = 0;
+        for (int chain = 0; chain < CHAINS; chain++) {
+            BooleanSupplier condition = chain % 3 == 0 ? premium : chain % 3 == 1 ? feature : region;
+            sum += when(condition).thenReturnInt(chain).orElse(-chain);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,60 @@
+package fluentconditionals.benchmarks;
+
+import fluentconditionals.TypeSwitch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//routing polymorphic events: instanceof tests in a rule ladder vs the ClassValue-backed whenInstanceOf(..) dispatcher
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TypeSwitchBenchmark {
+
+    static class E0 {} static class E1 {} static class E2 {} static class E3 {}
+    static class E4 {} static class E5 {} static class E6 {} static class E7 {}
+
+    static final Class<?>[] TYPES = {E0.class, E1.class, E2.class, E3.class, E4.class, E5.class, E6.class, E7.class};
+
+    Object[] events;
+    Function<Object, Integer> ladder;
+    Function<Object, Integer> dispatcher;
+    int cursor;
+
+    @Setup
+    public void setUp() {
+        events = new Object[1024];
+        Object[] samples = {new E0(), new E1(), new E2(), new E3(), new E4(), new E5(), new E6(), new E7()};
+        for (int i = 0; i < events.length; i++) events[i] = samples[(i * 7) & 7];
+
+        RuleThenReturn<Object, Integer> rule = rule(TYPES[0]::isInstance).thenReturn(e -> 0);
+        TypeSwitch<Integer> typeSwitch = whenInstanceOf(TYPES[0]).thenReturn(e -> 0);
+        for (int k = 1; k < TYPES.length; k++) {
+            int arm = k;
+            rule = rule.orWhen(TYPES[k]::isInstance).thenReturn(e -> arm);
+            typeSwitch = typeSwitch.orWhenInstanceOf(TYPES[k]).thenReturn(e -> arm);
+        }
+        ladder = rule.orElse(-1);
+        dispatcher = typeSwitch.orElse(-1);
+    }
+
+    private Object next() {
+        return events[cursor = (cursor + 1) & 1023];
+    }
+
+    @Benchmark
+    public Integer instanceOfLadder() {
+        return ladder.apply(next());
+    }
+
+    @Benchmark
+    public Integer classValueDispatch() {
+        return dispatcher.apply(next());
+    }
+}
@@ -0,0 +1,34 @@
+import fluentconditionals.Validation.Validator;
+import fluentconditionals.ValidationException;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 22
+public class AccumulatingValidation {
+
+    static final Validator<String> GREETING = validator(String.class)
+            .when(String::isEmpty).thenFail("must not be empty")
+            .when(s -> s.length() > 5).thenFail("length {} is over 5", String::length)
+            .when(s -> !Character.isUpperCase(s.charAt(0))).thenFail("'{}' must start with a capital", s -> s.charAt(0))
+            .build();
+
+    public static void main(String[] args) {
+        GREETING.check("Hello");
+        //nothing thrown, nothing allocated
+
+        System.out.println(GREETING.failures("greetings"));//[Failure[length 9 is over 5], Failure['g' must start with a capital]]
+
+        try {
+            validate("a string")
+                    .when(s -> s.contains(" ")).thenFail("must be one word")
+                    .when(s -> s.length() > 5).thenFail("length {} is over 5", String::length)
+                    .parallel()
+                    .throwIfInvalid();
+        } catch (ValidationException e) {
+            System.out.println(e.getMessage());
+            //2 violations
+            // - must be one word
+            // - length 8 is over 5
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import com.sun.management.ThreadMXBean;
+import fluentconditionals.Validation.Validator;
+
+import java.lang.management.ManagementFactory;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 13
+public class AllocationBudget {
+
+    //bytes per evaluation the library itself may allocate on top of the user's lambdas: stage objects only,
+    //no captured condition/parameter lambdas (when(boolean) reuses a constant stage, given(value) holds the value directly)
+    static final long WHEN_BUDGET = 24;
+    static final long GIVEN_BUDGET = 64;
+    static final long VALIDATOR_BUDGET = 0;
+
+    static final Validator<String> VALIDATOR = validator(String.class)
+            .when(String::isEmpty).thenFail("must not be empty")
+            .when(s -> s.length() > 10).thenFail("length {} is over 10", String::length)
+            .build();
+
+    static final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    static final int ITERATIONS = 1_000_000;
+
+    static int sink;
+
+    public static void main(String[] args) {
+        //run with -XX:-DoEscapeAnalysis to see what the library allocates without the JIT's help
+        check("when(true).then(..).orElse(..)", WHEN_BUDGET, AllocationBudget::whenConstant);
+        check("given(value).when(false).thenReturnInt(..).orElse(..)", GIVEN_BUDGET, AllocationBudget::givenValue);
+        check("validator.check(valid)", VALIDATOR_BUDGET, () -> VALIDATOR.check("Greetings"));
+        //budget respected for all three, or AssertionError thrown
+    }
+
+    static void whenConstant() {
+        when(true)
+                .then(doNothing)
+                .orElse(doNothing);
+    }
+
+    static void givenValue() {
+        sink += given("Greetings")
+                .when(false)
+                .thenReturnInt(String::length)
+                .orElse(String::hashCode);
+    }
+
+    static void check(String name, long budget, Runnable evaluation) {
+        for (int i = 0; i < ITERATIONS; i++) evaluation.run();//warm-up
+
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < ITERATIONS; i++) evaluation.run();
+        long perCall = (threads.getThreadAllocatedBytes(tid) - before) / ITERATIONS;
+
+        System.out.println(name + ": " + perCall + " B/op, budget " + budget);
+        if (perCall > budget) throw new AssertionError(name + " allocates " + perCall + " B/op, budget is " + budget);
+    }
+}
@@ -0,0 +1,41 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 18
+public class BulkEvaluation {
+
+    public static void main(String[] args) {
+        List<Integer> lengths = givenEach(Arrays.asList("This", "", "a string"))
+                .whenNot(String::isEmpty)
+                .thenReturn(String::length)
+                .orElse(s -> -1);
+        System.out.println(lengths);//[4, -1, 8]
+
+        givenEach(new String[]{"This", "a string"})
+                .when(s -> s.startsWith("a"))
+                .then(TestHelper::printFirstChar)
+                .orElse(TestHelper::printLastChar);
+        //'s' and 'a' printed to console
+
+        String joined = givenEach(Stream.of("x", "yy", "zzz"))
+                .when(s -> s.length() > 1)
+                .thenReturn(String::toUpperCase)
+                .orElse(s -> s, Collectors.joining(","));
+        System.out.println(joined);//x,YY,ZZZ
+
+        Integer[] numbers = IntStream.range(0, 100_000).boxed().toArray(Integer[]::new);
+        Integer[] results = new Integer[numbers.length];
+        givenEach(numbers)
+                .parallel(ForkJoinPool.commonPool(), 10_000)
+                .when(i -> i % 2 == 0)
+                .thenReturn(i -> i / 2)
+                .orElse(i -> -i, results);
+        System.out.println(results[99_998] + " " + results[99_999]);//49999 -99999
+    }
+}
@@ -0,0 +1,44 @@
+import fluentconditionals.CachedCondition;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 16
+public class CachedConditions {
+
+    static final CachedCondition FEATURE_ENABLED = cached(CachedConditions::veryComplexCondition, Duration.ofMinutes(1));
+    static final CachedCondition REFRESHED_IN_BACKGROUND = cached(CachedConditions::veryComplexCondition, Duration.ZERO, ForkJoinPool.commonPool());
+
+    public static void main(String[] args) {
+        for (int i = 0; i < 3; i++) {
+            when(FEATURE_ENABLED)
+                    .then(TestHelper::printBar)
+                    .orElse(TestHelper::printFoo);
+        }
+        //"Evaluating condition" printed once
+        //'Bar' printed 3 times
+
+        given(TestHelper::getAString)
+                .when(FEATURE_ENABLED)
+                .then(TestHelper::printFirstChar)
+                .orElse(doNothing());
+        //'a' printed to console, condition not evaluated again
+
+        System.out.println(FEATURE_ENABLED);//CachedCondition{hits=3, misses=1, refreshes=1}
+
+        when(REFRESHED_IN_BACKGROUND)
+                .then(TestHelper::printBar)
+                .orElse(TestHelper::printFoo);
+        when(REFRESHED_IN_BACKGROUND)
+                .then(TestHelper::printBar)
+                .orElse(TestHelper::printFoo);
+        //"Evaluating condition" printed at least once, 'Bar' printed twice - the second call does not wait for the refresh
+    }
+
+    static boolean veryComplexCondition() {
+        System.out.println("Evaluating condition");
+        return true;
+    }
+}
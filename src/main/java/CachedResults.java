@@ -0,0 +1,39 @@
+import fluentconditionals.ResultCache;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 17
+public class CachedResults {
+
+    static final ResultCache<String, Boolean> VALID = resultCache(1_000);
+    static final ResultCache<String, Integer> SCORES = resultCache(2);
+
+    public static void main(String[] args) {
+        for (int i = 0; i < 3; i++) {
+            given("a string")
+                    .when(CachedResults::expensiveCheck)
+                    .cachedIn(VALID)
+                    .then(TestHelper::printFirstChar)
+                    .orElse(doNothing());
+        }
+        //"Checking a string" printed once
+        //'a' printed 3 times
+
+        for (String s : new String[]{"one", "two", "one", "three", "one", "two"}) {
+            given(s)
+                    .when(CachedResults::expensiveCheck)
+                    .thenReturn(String::length)
+                    .cachedIn(SCORES)
+                    .orElse(0);
+        }
+        //"Checking one", "Checking two", "Checking three", "Checking two" printed - "two" was the least recently used when "three" came
+
+        System.out.println(VALID);//ResultCache{size=1, hits=2, misses=1, evictions=0}
+        System.out.println(SCORES.hitRatio());//0.333...
+    }
+
+    static boolean expensiveCheck(String s) {
+        System.out.println("Checking " + s);
+        return !s.isEmpty();
+    }
+}
@@ -0,0 +1,36 @@
+import fluentconditionals.Metrics;
+import fluentconditionals.Instrumentation;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 26
+public class ChainMetrics {
+
+    public static void main(String[] args) {
+        //not installed: named(..) is a no-op
+        when(true).named("ignored").then(TestHelper::printFoo).orElse(TestHelper::printBar);//Foo printed
+
+        Metrics metrics = new Metrics();
+        Instrumentation.install(metrics);
+
+        for (int price = 0; price < 100; price++) {
+            int discount = given(price)
+                    .when(p -> p >= 90)
+                    .named("pricing.discountGate")
+                    .thenReturnInt(p -> p / 10)
+                    .orElse(0);
+        }
+        try {
+            given("").when(s -> !s.isEmpty()).named("input.check").then(TestHelper::printFirstChar).orElseThrow(IllegalStateException::new, "Empty");
+        } catch (IllegalStateException expected) {
+        }
+
+        System.out.println(metrics.snapshot().get("pricing.discountGate").whenTrue());//10
+        System.out.println(metrics.snapshot().get("pricing.discountGate").whenFalse());//90
+        System.out.println(metrics.snapshot().get("input.check").threw());//1
+        System.out.print(metrics.export());//one line per chain: counters, then condition/then/else latency percentiles
+        System.out.println(metrics.snapshot().containsKey("ignored"));//false
+
+        Instrumentation.uninstall();
+    }
+}
@@ -0,0 +1,39 @@
+import fluentconditionals.Failure;
+import fluentconditionals.Result;
+import fluentconditionals.StacklessException;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 21
+public class CheapFailures {
+
+    static final Failure EMPTY_INPUT = failure("Input must not be empty");
+    static final StacklessException REJECTED = new StacklessException("Rejected");
+
+    public static void main(String[] args) {
+        Result<Integer> result1 = given("")
+                .whenNot(String::isEmpty)
+                .thenReturn(String::length)
+                .orElseFail(EMPTY_INPUT);
+        System.out.println(result1.isFailure() + " " + result1.message());//true Input must not be empty
+
+        Result<Integer> result2 = given("Greetings")
+                .whenNot(String::isEmpty)
+                .thenReturn(String::length)
+                .orElseFail(EMPTY_INPUT);
+        System.out.println(result2.value());//9
+
+        try {
+            when(!TestHelper.somethingIsTrue())
+                    .then(TestHelper::printBar)
+                    .orElseThrowE(REJECTED);
+        } catch (StacklessException e) {
+            System.out.println(e.getMessage() + " " + e.getStackTrace().length);//Rejected 0
+        }
+
+        int amount = -5;
+        when(amount < 0)
+                .thenThrow(failure("Amount {} is negative, limit is {}", amount, 0));
+        //Exception in thread "main" fluentconditionals.StacklessException: Amount -5 is negative, limit is 0
+    }
+}
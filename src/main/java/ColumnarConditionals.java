@@ -0,0 +1,27 @@
+import fluentconditionals.Selection;
+
+import java.util.Arrays;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 33
+public class ColumnarConditionals {
+
+    public static void main(String[] args) {
+        int[] quantities = {5, 120, 40, 300, 0, 75};
+        double[] prices = {9.5, 2.0, 4.25, 1.0, 12.0, 3.5};
+
+        Selection bulk = column(quantities).whenGreaterThan(100);
+        System.out.println(bulk);//Selection{2 of 6 rows}
+        System.out.println(Arrays.toString(bulk.indices()));//[1, 3]
+
+        double[] unitPrices = bulk.select(Arrays.stream(prices).map(p -> p * 0.9).toArray(), prices);
+        System.out.println(Arrays.toString(unitPrices));//[9.5, 1.8, 4.25, 0.9, 12.0, 3.5]
+
+        Selection cheapAndStocked = column(prices).whenLessThan(5).andNot(column(quantities).whenEqualTo(0));
+        System.out.println(Arrays.toString(cheapAndStocked.select(1, 0)));//[0, 1, 1, 1, 0, 1]
+
+        Selection midRange = column(quantities).whenBetween(10, 100).or(column(quantities).when(q -> q % 2 != 0));
+        System.out.println(Arrays.toString(midRange.not().indices()));//[1, 3, 4]
+    }
+}
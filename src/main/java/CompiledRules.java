@@ -0,0 +1,20 @@
+import java.lang.invoke.MethodHandle;
+import java.util.function.Function;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 23
+public class CompiledRules {
+
+    static final Function<String, Integer> LENGTH_OR_HASH = rule((String s) -> s.length() < 10)
+            .thenReturn(String::length)
+            .orElse(String::hashCode);
+
+    //constant to the JIT: the chain is inlined here, whatever other rules the application runs
+    static final MethodHandle COMPILED = compile(LENGTH_OR_HASH);
+
+    public static void main(String[] args) throws Throwable {
+        System.out.println((Object) COMPILED.invokeExact((Object) "Greetings"));//9
+        System.out.println((Object) COMPILED.invokeExact((Object) "Greetings and salutations"));//774260652
+    }
+}
@@ -0,0 +1,47 @@
+import fluentconditionals.AdaptiveCondition;
+
+import java.util.Arrays;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 20
+public class ConditionAlgebra {
+
+    static final AdaptiveCondition GATE = adaptiveAllOf(
+            ConditionAlgebra::slowAndUsuallyTrue,
+            ConditionAlgebra::cheapAndUsuallyFalse
+    );
+
+    static int calls;
+
+    public static void main(String[] args) {
+        when(TestHelper::somethingIsTrue)
+                .and(not(TestHelper::somethingIsTrue))
+                .then(TestHelper::printBar)
+                .orElse(TestHelper::printFoo);
+        //'Foo' printed to console
+
+        when(anyOf(() -> false, TestHelper::somethingIsTrue))
+                .or(ConditionAlgebra::slowAndUsuallyTrue)
+                .then(TestHelper::printBar)
+                .orElse(TestHelper::printFoo);
+        //'Bar' printed to console, the slow check not evaluated
+
+        for (int i = 0; i < 200_000; i++) {
+            when(GATE)
+                    .then(doNothing)
+                    .orElse(doNothing);
+        }
+        System.out.println(Arrays.toString(GATE.order()));//[1, 0] - the cheap, selective check moved first
+    }
+
+    static boolean slowAndUsuallyTrue() {
+        double x = 0;
+        for (int i = 0; i < 200; i++) x += Math.sqrt(i);
+        return x > 0;
+    }
+
+    static boolean cheapAndUsuallyFalse() {
+        return ++calls % 10 == 0;
+    }
+}
@@ -0,0 +1,49 @@
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 14
+public class ElseIfLadders {
+
+    static final Function<Integer, String> SIZE = rule((Integer i) -> i < 10)
+            .thenReturn(i -> "small")
+            .orWhen(i -> i < 100)
+            .thenReturn(i -> "medium")
+            .orWhen(i -> i < 1000)
+            .thenReturn(i -> "large")
+            .orElse("huge");
+
+    static final Consumer<String> PRINT = rule(String::isEmpty)
+            .then(s -> TestHelper.printFoo())
+            .orWhen(s -> s.startsWith("a"))
+            .then(TestHelper::printFirstChar)
+            .orElse(TestHelper::printLastChar);
+
+    static final Function<String, Integer> PRICE = select((String s) -> s.toLowerCase())
+            .whenEquals("apple")
+            .thenReturn(s -> 3)
+            .orWhenEquals("banana")
+            .thenReturn(s -> 1)
+            .orWhenEquals("cherry")
+            .thenReturn(String::length)
+            .orElseThrow(IllegalArgumentException::new, "Unknown fruit");
+
+    public static void main(String[] args) {
+        System.out.println(SIZE.apply(5));//small
+        System.out.println(SIZE.apply(500));//large
+        System.out.println(SIZE.apply(5000));//huge
+
+        PRINT.accept("");
+        //'Foo' printed to console
+        PRINT.accept("a string");
+        //'a' printed to console
+        PRINT.accept("This");
+        //'s' printed to console
+
+        System.out.println(PRICE.apply("Banana"));//1
+        System.out.println(PRICE.apply("cherry"));//6
+        PRICE.apply("durian");
+        //exception thrown
+    }
+}
@@ -0,0 +1,47 @@
+import fluentconditionals.FlightRecorderInstrumentation;
+import fluentconditionals.Instrumentation;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 27
+public class FlightRecorderEvents {
+
+    public static void main(String[] args) throws Exception {
+        Instrumentation.install(new FlightRecorderInstrumentation(Duration.ofMillis(10)));
+        Path file = Files.createTempFile("conditionals", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("fluentconditionals.Evaluation");
+            recording.start();
+
+            when(true).named("fast").then(TestHelper::printFoo).orElse(TestHelper::printBar);//Foo printed
+            when(() -> sleep(20)).named("slow").then(TestHelper::printFoo).orElse(TestHelper::printBar);//Bar printed
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            System.out.println(event.getString("chain") + " " + event.getString("branch") + " " + event.getBoolean("thrown"));
+        }
+        //slow else false - the fast chain stayed under the threshold
+        Files.delete(file);
+        Instrumentation.uninstall();
+    }
+
+    static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+}
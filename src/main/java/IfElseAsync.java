@@ -0,0 +1,35 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 19
+public class IfElseAsync {
+
+    public static void main(String[] args) {
+        CompletionStage<Integer> result1 = whenAsync(IfElseAsync::remoteCheck)
+                .thenReturnAsync(IfElseAsync::remoteHighNumber)
+                .orElse(TestHelper::getLowNumber);
+        System.out.println(result1.toCompletableFuture().join());//1000
+
+        CompletionStage<Void> result2 = whenAsync(IfElseAsync::remoteCheck)
+                .then(TestHelper::printBar)
+                .orElse(TestHelper::printFoo);
+        result2.toCompletableFuture().join();
+        //'Bar' printed to console
+
+        CompletionStage<Integer> result3 = whenAsync(() -> CompletableFuture.completedFuture(false))
+                .thenReturn(TestHelper::getHighNumber)
+                .orElseThrow(IllegalStateException::new, "Remote check failed");
+        System.out.println(result3.handle((value, failure) -> failure).toCompletableFuture().join());
+        //java.util.concurrent.CompletionException: java.lang.IllegalStateException: Remote check failed
+    }
+
+    static CompletionStage<Boolean> remoteCheck() {
+        return CompletableFuture.supplyAsync(TestHelper::somethingIsTrue);
+    }
+
+    static CompletionStage<Integer> remoteHighNumber() {
+        return CompletableFuture.supplyAsync(TestHelper::getHighNumber);
+    }
+}
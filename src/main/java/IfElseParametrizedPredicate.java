@@ -0,0 +1,40 @@
+import java.util.function.Supplier;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 15
+public class IfElseParametrizedPredicate {
+
+    public static void main(String[] args) {
+        given(IfElseParametrizedPredicate::expensiveLookup)
+                .when(s -> s.startsWith("a"))
+                .then(TestHelper::printFirstChar)
+                .orElse(TestHelper::printLastChar);
+        //"Looking up" printed once
+        //'a' printed to console
+
+        int length = given(IfElseParametrizedPredicate::expensiveLookup)
+                .whenNot(String::isEmpty)
+                .thenReturnInt(String::length)
+                .orElse(0);
+        System.out.println(length);//"Looking up" printed once, then 8
+
+        Supplier<String> lookup = memoized(IfElseParametrizedPredicate::expensiveLookup);
+        given(lookup)
+                .when(s -> s.endsWith("g"))
+                .then(TestHelper::printLastChar)
+                .orElse(doNothing());
+        given(lookup)
+                .when(String::isEmpty)
+                .then(TestHelper::printLastChar)
+                .orElseThrow(RuntimeException::new);
+        //"Looking up" printed once for both chains
+        //'g' printed to console
+        //exception thrown
+    }
+
+    static String expensiveLookup() {
+        System.out.println("Looking up");
+        return TestHelper.getAString();
+    }
+}
@@ -0,0 +1,41 @@
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 12
+public class IfElsePrimitiveThenReturn {
+
+    public static void main(String[] args) {
+        int result1 = when(TestHelper::somethingIsTrue)
+                .thenReturnInt(TestHelper::getHighNumber)
+                .orElse(TestHelper::getLowNumber);
+        System.out.println(result1);//1000
+
+        long result2 = when(!TestHelper.somethingIsTrue())
+                .thenReturnLong(Long.MAX_VALUE)
+                .orElse(0L);
+        System.out.println(result2);//0
+
+        int result3 = given("Greetings")
+                .when(TestHelper::somethingIsTrue)
+                .thenReturnInt(String::length)
+                .orElse(String::hashCode);
+        System.out.println(result3);//9
+
+        double result4 = given("Greetings")
+                .when(!TestHelper.somethingIsTrue())
+                .thenReturnDouble(String::length)
+                .orElse(0.5);
+        System.out.println(result4);//0.5
+
+        boolean result5 = given(TestHelper::getAString)//"a string"
+                .when(TestHelper::somethingIsTrue)
+                .thenReturnBoolean(String::isEmpty)
+                .orElse(true);
+        System.out.println(result5);//false
+
+        int result6 = given("Greetings")
+                .when(!TestHelper.somethingIsTrue())
+                .thenReturnInt(String::length)
+                .orElseThrow(RuntimeException::new);
+        //exception thrown
+    }
+}
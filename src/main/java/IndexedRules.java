@@ -0,0 +1,41 @@
+import fluentconditionals.RuleSet;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 25
+public class IndexedRules {
+
+    static final class Order {
+        final String country;
+        final long amount;
+        final boolean express;
+
+        Order(String country, long amount, boolean express) {
+            this.country = country;
+            this.amount = amount;
+            this.express = express;
+        }
+    }
+
+    public static void main(String[] args) {
+        RuleSet<Order> rules = ruleSet();
+        RuleSet.HashAttribute<Order, String> country = rules.hashIndex("country", o -> o.country);
+        RuleSet.RangeAttribute<Order> amount = rules.rangeIndex("amount", o -> o.amount);
+
+        rules.update(r -> {
+            r.rule("polish-express").whereEquals(country, "PL").when(o -> o.express).then(o -> System.out.println("courier"));
+            r.rule("big-order").whereBetween(amount, 1000, Long.MAX_VALUE).then(o -> System.out.println("manual review"));
+            r.rule("polish").whereEquals(country, "PL").then(o -> System.out.println("domestic post"));
+            r.rule("fallback").then(o -> System.out.println("international post"));
+        });
+
+        System.out.println(rules.fireFirst(new Order("PL", 50, true)));//courier, polish-express
+        System.out.println(rules.fireFirst(new Order("DE", 5000, false)));//manual review, big-order
+        System.out.println(rules.fireAll(new Order("PL", 5000, false)));//manual review, domestic post, international post, 3
+
+        //swapped while other threads keep evaluating the previous snapshot
+        rules.remove("big-order");
+        System.out.println(rules.fireFirst(new Order("DE", 5000, false)));//international post, fallback
+        System.out.println(rules.size());//3
+    }
+}
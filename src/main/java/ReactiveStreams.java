@@ -0,0 +1,75 @@
+import fluentconditionals.ConditionalProcessor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Function;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 30
+public class ReactiveStreams {
+
+    static final Function<Integer, String> PARITY = rule((Integer i) -> i % 2 == 0)
+            .thenReturn(i -> "even " + i)
+            .orElse(i -> "odd " + i);
+
+    public static void main(String[] args) throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+        ConditionalProcessor<Integer, String> mapped = process(PARITY, 2);
+        mapped.subscribe(new Printer("mapped", finished));
+        try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(mapped);
+            for (int i = 1; i <= 3; i++) publisher.submit(i);
+        }
+        finished.await();
+        //mapped odd 1, mapped even 2, mapped odd 3, mapped done
+
+        CountDownLatch bothFinished = new CountDownLatch(2);
+        ConditionalProcessor<Integer, String> split = split(PARITY);
+        split.whenTrue().subscribe(new Printer("evens", bothFinished));
+        split.whenFalse().subscribe(new Printer("odds", bothFinished));
+        try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(split);
+            for (int i = 1; i <= 4; i++) publisher.submit(i);
+        }
+        bothFinished.await();
+        //odds odd 1, evens even 2, odds odd 3, evens even 4, then done for both
+    }
+
+    //asks for one item at a time
+    static final class Printer implements Flow.Subscriber<String> {
+        private final String name;
+        private final CountDownLatch finished;
+        private Flow.Subscription subscription;
+
+        Printer(String name, CountDownLatch finished) {
+            this.name = name;
+            this.finished = finished;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(String item) {
+            System.out.println(name + " " + item);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            System.out.println(name + " failed: " + throwable);
+            finished.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            System.out.println(name + " done");
+            finished.countDown();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 11
+public class ReusableRules {
+
+    //built once, applied many times
+    static final Function<String, Integer> LENGTH_OR_HASH = rule((String s) -> s.length() < 10)
+            .thenReturn(String::length)
+            .orElse(String::hashCode);
+    static final Consumer<String> PRINT_FIRST_OR_LAST = rule((String s) -> s.startsWith("a"))
+            .then(TestHelper::printFirstChar)
+            .orElse(TestHelper::printLastChar);
+    static final Function<String, String> NON_EMPTY = rule((String s) -> !s.isEmpty())
+            .thenReturn(Function.identity())
+            .orElseThrow(IllegalArgumentException::new, "Empty string");
+
+    public static void main(String[] args) {
+        System.out.println(LENGTH_OR_HASH.apply("Greetings"));//9
+        System.out.println(LENGTH_OR_HASH.apply("a"));//1
+
+        PRINT_FIRST_OR_LAST.accept("a string");
+        //'a' printed to console
+        PRINT_FIRST_OR_LAST.accept("This");
+        //'s' printed to console
+
+        System.out.println(NON_EMPTY.apply("x"));//x
+        NON_EMPTY.apply("");
+        //exception thrown
+    }
+}
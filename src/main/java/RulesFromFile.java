@@ -0,0 +1,55 @@
+import fluentconditionals.RuleLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 31
+public class RulesFromFile {
+
+    static final class Order {
+        final double amount;
+        final String country;
+        final boolean vip;
+
+        Order(double amount, String country, boolean vip) {
+            this.amount = amount;
+            this.country = country;
+            this.vip = vip;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path file = Files.createTempFile("rules", ".txt");
+        Files.write(file, Arrays.asList(
+                "# discounts",
+                "pricing.discount: amount >= 1000 && (country == \"PL\" || vip) then 0.15 else 0.0",
+                "limits.amount: amount <= 50000 then \"accepted\" else throw \"Amount over limit\""));
+
+        RuleLoader<Order> rules = ruleLoader(file);
+        rules.number("amount", o -> o.amount)
+                .text("country", o -> o.country)
+                .flag("vip", o -> o.vip)
+                .reload();
+
+        Function<Order, Double> discount = rules.rule("pricing.discount");
+        Function<Order, String> limit = rules.rule("limits.amount");
+
+        System.out.println(discount.apply(new Order(1500, "PL", false)));//0.15
+        System.out.println(discount.apply(new Order(1500, "DE", false)));//0.0
+        System.out.println(limit.apply(new Order(100, "DE", false)));//accepted
+
+        //ops change the threshold, reload swaps every rule at once
+        Files.write(file, Arrays.asList("pricing.discount: amount >= 100 then 0.05 else 0.0",
+                "limits.amount: amount <= 50000 then \"accepted\" else throw \"Amount over limit\""));
+        rules.reload();
+        System.out.println(discount.apply(new Order(150, "DE", false)));//0.05
+
+        Files.delete(file);
+        limit.apply(new Order(90000, "DE", false));
+        //exception thrown: Amount over limit
+    }
+}
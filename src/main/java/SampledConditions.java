@@ -0,0 +1,41 @@
+import fluentconditionals.Sampling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 34
+public class SampledConditions {
+
+    static final Sampling.Probability ONE_PERCENT = sampled(0.01);
+    static final Sampling.Probability NEVER = sampled(0);
+    static final Sampling.EveryNth EVERY_THIRD = everyNth(3);
+    static final Sampling.RateLimit TWICE_A_SECOND = atMostPerSecond(2);
+    static final Sampling.RateLimit BURST_OF_FIVE = atMostPerSecond(1, 5);
+
+    public static void main(String[] args) {
+        for (int i = 0; i < 6; i++) {
+            whenEveryNth(EVERY_THIRD).then(TestHelper::printFoo).orElse(TestHelper::printBar);//Foo Bar Bar Foo Bar Bar
+        }
+
+        AtomicInteger logged = new AtomicInteger();
+        for (int i = 0; i < 1000; i++) {
+            whenAtMostPerSecond(TWICE_A_SECOND).then(logged::incrementAndGet).orElse(doNothing);
+        }
+        System.out.println(logged.get());//1 - the second permit is due in half a second
+
+        int admitted = 0;
+        for (int i = 0; i < 1000; i++) {
+            admitted += when(BURST_OF_FIVE).thenReturnInt(1).orElse(0);
+        }
+        System.out.println(admitted);//5
+
+        int sampled = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sampled += whenSampled(ONE_PERCENT).thenReturnInt(1).orElse(0);
+        }
+        System.out.println(sampled > 800 && sampled < 1200);//true - about one in a hundred
+
+        System.out.println(whenSampled(NEVER).thenReturn("sampled").orElse("skipped"));//skipped
+    }
+}
@@ -0,0 +1,32 @@
+import fluentconditionals.EvaluationContext;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 32
+public class SharedConditions {
+
+    static final AtomicInteger LOOKUPS = new AtomicInteger();
+    static final EvaluationContext.Shared IS_PREMIUM = shared(() -> {
+        LOOKUPS.incrementAndGet();
+        return true;
+    });
+
+    public static void main(String[] args) {
+        try (EvaluationContext context = EvaluationContext.open()) {
+            when(IS_PREMIUM).then(TestHelper::printFoo).orElse(TestHelper::printBar);//Foo printed
+            int discount = when(IS_PREMIUM.and(() -> LOOKUPS.get() > 0)).thenReturnInt(15).orElse(0);
+            System.out.println(discount);//15
+            System.out.println(LOOKUPS.get());//1 - evaluated once for both chains
+
+            context.reset();
+            when(IS_PREMIUM).then(TestHelper::printFoo).orElse(TestHelper::printBar);//Foo printed
+            System.out.println(LOOKUPS.get());//2
+        }
+
+        //outside any scope every use evaluates it
+        when(IS_PREMIUM).then(TestHelper::printFoo).orElse(TestHelper::printBar);//Foo printed
+        System.out.println(LOOKUPS.get());//3
+    }
+}
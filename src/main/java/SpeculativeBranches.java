@@ -0,0 +1,44 @@
+import fluentconditionals.Speculation;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 28
+public class SpeculativeBranches {
+
+    static final ExecutorService POOL = Executors.newFixedThreadPool(4);
+    static final Speculation SPECULATION = speculation(POOL);
+
+    public static void main(String[] args) {
+        long started = System.nanoTime();
+        String tier = when(() -> remote(true))
+                .thenReturn(() -> remote("gold"))
+                .speculative(SPECULATION)
+                .orElse(() -> remote("standard"));
+        System.out.println(tier);//gold
+        System.out.println((System.nanoTime() - started) / 1_000_000 < 150);//true - three 100ms lookups overlapped
+
+        Integer length = given("Greetings")
+                .when(s -> remote(s.isEmpty()))
+                .thenReturn(s -> remote(0))
+                .speculative(SPECULATION)
+                .orElse(s -> remote(s.length()));
+        System.out.println(length);//9
+
+        System.out.println(SPECULATION.evaluations());//2
+        System.out.println(SPECULATION.wasted() + SPECULATION.cancelled());//2 - one losing branch per evaluation
+
+        POOL.shutdown();
+    }
+
+    static <T> T remote(T value) {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,34 @@
+import java.util.function.Function;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 24
+public class TypeDispatch {
+
+    static final Function<Object, String> DESCRIBE = whenInstanceOf(Integer.class)
+            .thenReturn(i -> "int " + (i + 1))
+            .orWhenInstanceOf(CharSequence.class)
+            .thenReturn(cs -> "text of " + cs.length())
+            .orWhenInstanceOf(Number.class)
+            .thenReturn(n -> "number " + n.doubleValue())
+            .orElse(o -> "something else");
+
+    public static void main(String[] args) {
+        System.out.println(DESCRIBE.apply(41));//int 42
+        System.out.println(DESCRIBE.apply(new StringBuilder("abc")));//text of 3
+        System.out.println(DESCRIBE.apply(2L));//number 2.0
+        System.out.println(DESCRIBE.apply(new SomeClass()));//something else
+
+        int length = given((Object) "Greetings")
+                .whenInstanceOf(String.class)
+                .thenReturn(String::length)
+                .orElse(0);
+        System.out.println(length);//9
+
+        given((Object) 1000)
+                .whenInstanceOf(String.class)
+                .then(TestHelper::printFirstChar)
+                .orElseThrow(IllegalArgumentException::new, "Not a string");
+        //exception thrown
+    }
+}
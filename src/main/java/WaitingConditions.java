@@ -0,0 +1,48 @@
+import fluentconditionals.Signal;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static fluentconditionals.FluentConditionals.*;
+
+//Task 29
+public class WaitingConditions {
+
+    static final AtomicBoolean READY = new AtomicBoolean();
+    static final Signal READY_CHANGED = signal();
+
+    public static void main(String[] args) throws InterruptedException {
+        Thread producer = new Thread(() -> {
+            sleep(50);
+            READY.set(true);
+            READY_CHANGED.signalAll();
+        });
+        producer.start();
+
+        whenEventually(READY::get, Duration.ofSeconds(1), READY_CHANGED)
+                .then(TestHelper::printFoo)
+                .orElse(TestHelper::printBar);
+        //Foo printed
+
+        System.out.println(awaitWhen(() -> false, Duration.ofMillis(20)));//false
+
+        String state = whenEventually(() -> !READY.get(), Duration.ofMillis(20))
+                .thenReturn("stopped")
+                .orElse("still running");
+        System.out.println(state);//still running
+
+        producer.join();
+        whenEventually(() -> false, Duration.ofMillis(5))
+                .then(TestHelper::printFoo)
+                .orElseThrow(IllegalStateException::new, "Not ready in time");
+        //exception thrown
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package fluentconditionals;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+//allOf/anyOf over commutative, side-effect free terms, reordering itself from measured cost and pass rate
+//one evaluation in sampleEvery is timed; after reorderEvery samples the terms are re-sorted by expected cost to decide:
+//  allOf: cost / P(false) ascending - cheap terms that usually fail go first
+//  anyOf: cost / P(true)  ascending - cheap terms that usually pass go first
+public final class AdaptiveCondition implements Condition {
+
+    private static final double DECAY = 0.1;
+
+    private final BooleanSupplier[] terms;
+    private final boolean all;
+    private final int sampleEvery;
+    private final int reorderEvery;
+
+    private volatile int[] order;
+
+    //guarded by this, touched on sampled evaluations only
+    private final double[] costNanos;
+    private final double[] passRate;
+    private int samples;
+
+    AdaptiveCondition(BooleanSupplier[] terms, boolean all, int sampleEvery, int reorderEvery) {
+        if (sampleEvery < 1 || reorderEvery < 1) throw new IllegalArgumentException("Sampling intervals must be positive");
+        this.terms = terms.clone();
+        this.all = all;
+        this.sampleEvery = sampleEvery;
+        this.reorderEvery = reorderEvery;
+        this.order = new int[terms.length];
+        for (int i = 0; i < terms.length; i++) order[i] = i;
+        this.costNanos = new double[terms.length];
+        this.passRate = new double[terms.length];
+        Arrays.fill(passRate, 0.5);
+    }
+
+    static AdaptiveCondition allOf(BooleanSupplier... terms) {
+        return new AdaptiveCondition(terms, true, 64, 256);
+    }
+
+    static AdaptiveCondition anyOf(BooleanSupplier... terms) {
+        return new AdaptiveCondition(terms, false, 64, 256);
+    }
+
+    @Override
+    public boolean getAsBoolean() {
+        int[] current = order;
+        if (ThreadLocalRandom.current().nextInt(sampleEvery) == 0) return sampled(current);
+        for (int i : current) {
+            if (terms[i].getAsBoolean() != all) return !all;
+        }
+        return all;
+    }
+
+    //current evaluation order, as indexes into the terms given at construction
+    public int[] order() {
+        return order.clone();
+    }
+
+    private boolean sampled(int[] current) {
+        long[] nanos = new long[current.length];
+        boolean[] results = new boolean[current.length];
+        int evaluated = 0;
+        boolean outcome = all;
+        for (int i : current) {
+            long start = System.nanoTime();
+            boolean result = terms[i].getAsBoolean();
+            nanos[evaluated] = System.nanoTime() - start;
+            results[evaluated++] = result;
+            if (result != all) {
+                outcome = !all;
+                break;
+            }
+        }
+        record(current, nanos, results, evaluated);
+        return outcome;
+    }
+
+    private synchronized void record(int[] current, long[] nanos, boolean[] results, int evaluated) {
+        for (int k = 0; k < evaluated; k++) {
+            int i = current[k];
+            costNanos[i] += DECAY * (nanos[k] - costNanos[i]);
+            passRate[i] += DECAY * ((results[k] ? 1.0 : 0.0) - passRate[i]);
+        }
+        if (++samples % reorderEvery == 0) reorder();
+    }
+
+    private void reorder() {
+        Integer[] sorted = new Integer[terms.length];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = i;
+        Arrays.sort(sorted, (a, b) -> Double.compare(rank(a), rank(b)));
+        int[] next = new int[sorted.length];
+        for (int i = 0; i < next.length; i++) next[i] = sorted[i];
+        order = next;
+    }
+
+    private double rank(int term) {
+        double decisive = all ? 1.0 - passRate[term] : passRate[term];
+        return (costNanos[term] + 1.0) / Math.max(decisive, 1e-6);
+    }
+}
@@ -0,0 +1,60 @@
+package fluentconditionals;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+//a condition that waits for itself to hold, up to a timeout: true as soon as it holds, false once the timeout passes
+//waiting goes from cheap-to-react to cheap-to-run: spin, then yield, then park with a doubling backoff
+//with a Signal the parking is driven by signalAll() instead of the backoff, so nothing polls while the condition stays false
+public final class Await implements BooleanSupplier {
+
+    static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    static final long YIELD_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    static final long MAX_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(250);
+
+    private final BooleanSupplier condition;
+    private final long timeoutNanos;
+    private final Signal signal;
+
+    Await(BooleanSupplier condition, Duration timeout, Signal signal) {
+        if (timeout.isNegative()) throw new IllegalArgumentException("Negative timeout: " + timeout);
+        this.condition = condition;
+        this.timeoutNanos = timeout.toNanos();
+        this.signal = signal;
+    }
+
+    //each call waits anew, so one instance can be kept in a field and shared
+    @Override
+    public boolean getAsBoolean() {
+        if (condition.getAsBoolean()) return true;
+        long started = System.nanoTime();
+        long park = MIN_PARK_NANOS;
+        boolean registered = false;
+        try {
+            while (true) {
+                long waited = System.nanoTime() - started;
+                if (waited >= timeoutNanos || Thread.currentThread().isInterrupted()) return condition.getAsBoolean();
+                if (waited < SPIN_NANOS) Thread.onSpinWait();
+                else if (waited < YIELD_NANOS) Thread.yield();
+                else if (signal != null) {
+                    //register, then check once more: a signalAll() after that check leaves an unpark permit behind
+                    if (!registered) {
+                        signal.register();
+                        registered = true;
+                        if (condition.getAsBoolean()) return true;
+                    }
+                    LockSupport.parkNanos(this, timeoutNanos - waited);
+                } else {
+                    LockSupport.parkNanos(this, Math.min(park, timeoutNanos - waited));
+                    park = Math.min(park << 1, MAX_PARK_NANOS);
+                }
+                if (condition.getAsBoolean()) return true;
+            }
+        } finally {
+            if (registered) signal.unregister();
+        }
+    }
+}
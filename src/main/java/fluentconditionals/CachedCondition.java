@@ -0,0 +1,94 @@
+package fluentconditionals;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+//a condition that is re-evaluated at most once per time-to-live; keep it in a field and pass it to when(..) / given(..).when(..)
+//once stale, exactly one caller refreshes it (inline, or on the refresher executor) while everybody else keeps getting the last value
+public final class CachedCondition implements BooleanSupplier {
+
+    private final BooleanSupplier condition;
+    private final long timeToLiveNanos;
+    private final Executor refresher;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile boolean loaded;
+    private volatile boolean value;
+    private volatile long expiresAt;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    CachedCondition(BooleanSupplier condition, Duration timeToLive, Executor refresher) {
+        if (timeToLive.isNegative()) throw new IllegalArgumentException("Negative time to live: " + timeToLive);
+        this.condition = condition;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.refresher = refresher;
+    }
+
+    @Override
+    public boolean getAsBoolean() {
+        if (!loaded) {
+            //nothing to serve yet - first callers evaluate on their own
+            misses.increment();
+            return refresh();
+        }
+        if (System.nanoTime() - expiresAt < 0) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        if (refreshing.compareAndSet(false, true)) {
+            if (refresher == null) return refreshClaimed();
+            try {
+                refresher.execute(this::refreshClaimed);
+            } catch (RuntimeException e) {
+                //shut down or saturated - refresh inline rather than serve the stale value forever
+                return refreshClaimed();
+            }
+        }
+        return value;
+    }
+
+    public void invalidate() {
+        expiresAt = System.nanoTime();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long refreshes() {
+        return refreshes.sum();
+    }
+
+    private boolean refresh() {
+        boolean fresh = condition.getAsBoolean();
+        value = fresh;
+        expiresAt = System.nanoTime() + timeToLiveNanos;
+        loaded = true;
+        refreshes.increment();
+        return fresh;
+    }
+
+    private boolean refreshClaimed() {
+        try {
+            return refresh();
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CachedCondition{hits=" + hits() + ", misses=" + misses() + ", refreshes=" + refreshes() + "}";
+    }
+}
@@ -0,0 +1,71 @@
+package fluentconditionals;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static java.lang.invoke.MethodType.methodType;
+
+//turns compiled rules into method handle trees: guardWithTest per arm, conditions and branches bound as constants
+//held in a static final field, the handle is a constant to the JIT, so each use site inlines its own lambdas
+//instead of going through the shared (and, in a big application, megamorphic) Compiled.apply/Ladder.apply
+final class ChainCompiler {
+
+    private static final MethodHandle TEST;
+    private static final MethodHandle APPLY;
+    private static final MethodHandle ACCEPT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            TEST = lookup.findVirtual(Predicate.class, "test", methodType(boolean.class, Object.class));
+            APPLY = lookup.findVirtual(Function.class, "apply", methodType(Object.class, Object.class));
+            ACCEPT = lookup.findVirtual(Consumer.class, "accept", methodType(void.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private ChainCompiler() {
+    }
+
+    //(Object)Object
+    static MethodHandle compile(Function<?, ?> function) {
+        if (function instanceof FluentConditionals.RuleThenReturn.Compiled) {
+            FluentConditionals.RuleThenReturn.Compiled<?, ?> rule = (FluentConditionals.RuleThenReturn.Compiled<?, ?>) function;
+            return MethodHandles.guardWithTest(test(rule.condition), compile(rule.function), compile(rule.elseFunction));
+        }
+        if (function instanceof FluentConditionals.RuleThenReturn.Ladder) {
+            FluentConditionals.RuleThenReturn.Ladder<?, ?> rule = (FluentConditionals.RuleThenReturn.Ladder<?, ?>) function;
+            MethodHandle handle = compile(rule.elseFunction);
+            for (int i = rule.conditions.length - 1; i >= 0; i--) {
+                handle = MethodHandles.guardWithTest(test(rule.conditions[i]), compile(rule.functions[i]), handle);
+            }
+            return handle;
+        }
+        return APPLY.bindTo(function);
+    }
+
+    //(Object)void
+    static MethodHandle compileAction(Consumer<?> consumer) {
+        if (consumer instanceof FluentConditionals.RuleThenExecute.Compiled) {
+            FluentConditionals.RuleThenExecute.Compiled<?> rule = (FluentConditionals.RuleThenExecute.Compiled<?>) consumer;
+            return MethodHandles.guardWithTest(test(rule.condition), compileAction(rule.consumer), compileAction(rule.elseConsumer));
+        }
+        if (consumer instanceof FluentConditionals.RuleThenExecute.Ladder) {
+            FluentConditionals.RuleThenExecute.Ladder<?> rule = (FluentConditionals.RuleThenExecute.Ladder<?>) consumer;
+            MethodHandle handle = compileAction(rule.elseConsumer);
+            for (int i = rule.conditions.length - 1; i >= 0; i--) {
+                handle = MethodHandles.guardWithTest(test(rule.conditions[i]), compileAction(rule.consumers[i]), handle);
+            }
+            return handle;
+        }
+        return ACCEPT.bindTo(consumer);
+    }
+
+    private static MethodHandle test(Predicate<?> condition) {
+        return TEST.bindTo(condition);
+    }
+}
@@ -0,0 +1,284 @@
+package fluentconditionals;
+
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+//when(..) over a whole primitive column at once: column(amounts).whenGreaterThan(1000) gives a Selection, one bit per row
+//the comparison loops only compare, shift and or - the JIT emits setcc/cmov, no branch depends on the data
+//when(predicate) takes any predicate and is as branch-free as the predicate the JIT inlines into it
+//no Vector API path: it is still an incubator module and would need --add-modules on every consumer
+public interface Column {
+
+    int size();
+
+    final class Ints implements Column {
+
+        private final int[] values;
+
+        Ints(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        public Selection when(IntPredicate condition) {
+            int[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    int x = v[base + b];
+                    bits |= (condition.test(x) ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+
+        public Selection whenGreaterThan(int bound) {
+            int[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    int x = v[base + b];
+                    bits |= (x > bound ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+
+        public Selection whenLessThan(int bound) {
+            int[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    int x = v[base + b];
+                    bits |= (x < bound ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+
+        public Selection whenEqualTo(int value) {
+            int[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    int x = v[base + b];
+                    bits |= (x == value ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+
+        //inclusive on both ends
+        public Selection whenBetween(int from, int to) {
+            int[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    int x = v[base + b];
+                    bits |= (x >= from & x <= to ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+    }
+
+    final class Longs implements Column {
+
+        private final long[] values;
+
+        Longs(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        public Selection when(LongPredicate condition) {
+            long[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    long x = v[base + b];
+                    bits |= (condition.test(x) ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+
+        public Selection whenGreaterThan(long bound) {
+            long[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    long x = v[base + b];
+                    bits |= (x > bound ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+
+        public Selection whenLessThan(long bound) {
+            long[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    long x = v[base + b];
+                    bits |= (x < bound ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+
+        public Selection whenEqualTo(long value) {
+            long[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    long x = v[base + b];
+                    bits |= (x == value ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+
+        //inclusive on both ends
+        public Selection whenBetween(long from, long to) {
+            long[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    long x = v[base + b];
+                    bits |= (x >= from & x <= to ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+    }
+
+    final class Doubles implements Column {
+
+        private final double[] values;
+
+        Doubles(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        public Selection when(DoublePredicate condition) {
+            double[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    double x = v[base + b];
+                    bits |= (condition.test(x) ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+
+        public Selection whenGreaterThan(double bound) {
+            double[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    double x = v[base + b];
+                    bits |= (x > bound ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+
+        public Selection whenLessThan(double bound) {
+            double[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    double x = v[base + b];
+                    bits |= (x < bound ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+
+        public Selection whenEqualTo(double value) {
+            double[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    double x = v[base + b];
+                    bits |= (x == value ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+
+        //inclusive on both ends
+        public Selection whenBetween(double from, double to) {
+            double[] v = values;
+            long[] words = Selection.words(v.length);
+            for (int w = 0; w < words.length; w++) {
+                int base = w << 6, end = Math.min(64, v.length - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    double x = v[base + b];
+                    bits |= (x >= from & x <= to ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+            return new Selection(words, v.length);
+        }
+    }
+}
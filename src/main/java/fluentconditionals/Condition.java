@@ -0,0 +1,40 @@
+package fluentconditionals;
+
+import java.util.function.BooleanSupplier;
+
+//short-circuiting condition algebra, usable anywhere a BooleanSupplier is
+@FunctionalInterface
+public interface Condition extends BooleanSupplier {
+
+    default Condition and(BooleanSupplier other) {
+        return () -> getAsBoolean() && other.getAsBoolean();
+    }
+
+    default Condition or(BooleanSupplier other) {
+        return () -> getAsBoolean() || other.getAsBoolean();
+    }
+
+    default Condition negate() {
+        return () -> !getAsBoolean();
+    }
+
+    static Condition of(BooleanSupplier condition) {
+        return condition instanceof Condition ? (Condition) condition : condition::getAsBoolean;
+    }
+
+    static Condition allOf(BooleanSupplier... conditions) {
+        BooleanSupplier[] terms = conditions.clone();
+        return () -> {
+            for (BooleanSupplier term : terms) if (!term.getAsBoolean()) return false;
+            return true;
+        };
+    }
+
+    static Condition anyOf(BooleanSupplier... conditions) {
+        BooleanSupplier[] terms = conditions.clone();
+        return () -> {
+            for (BooleanSupplier term : terms) if (term.getAsBoolean()) return true;
+            return false;
+        };
+    }
+}
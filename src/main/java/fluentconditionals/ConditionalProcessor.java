@@ -0,0 +1,310 @@
+package fluentconditionals;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+//a prebuilt rule applied to a reactive stream: process(rule(..).thenReturn(..).orElse(..)) maps every item through it,
+//split(..) of the same kind of rule sends then-results to whenTrue() and else-results to whenFalse()
+//upstream is requested in batches and never beyond what the buffers can hold, so memory stays bounded by the batch size
+//outputs are unicast, one subscriber each; with split(..) subscribe to both, a branch nobody drains stalls the other
+public final class ConditionalProcessor<ParameterType, ReturnType> implements Flow.Processor<ParameterType, ReturnType> {
+
+    static final int DEFAULT_BATCH_SIZE = 256;
+    static final int MAXIMUM_BATCH_SIZE = 1 << 29;//buffers hold twice the batch, rounded up to a power of two
+
+    private final Predicate<ParameterType> condition;//null when mapping only
+    private final Function<ParameterType, ReturnType> function;
+    private final Function<ParameterType, ReturnType> elseFunction;
+    private final Output<ReturnType>[] outputs;
+    private final int batchSize;
+
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile Flow.Subscription upstream;
+    private volatile long received;
+    private long requested;//drain loop only
+    private volatile boolean done;
+    private volatile Throwable error;
+    private volatile boolean cancelUpstream;
+    private boolean upstreamCancelled;//drain loop only
+
+    @SuppressWarnings("unchecked")
+    ConditionalProcessor(Predicate<ParameterType> condition, Function<ParameterType, ReturnType> function, Function<ParameterType, ReturnType> elseFunction, int batchSize) {
+        if (batchSize < 1 || batchSize > MAXIMUM_BATCH_SIZE) throw new IllegalArgumentException("Batch size must be within [1, " + MAXIMUM_BATCH_SIZE + "]: " + batchSize);
+        this.condition = condition;
+        this.function = function;
+        this.elseFunction = elseFunction;
+        this.batchSize = batchSize;
+        int capacity = Integer.highestOneBit(batchSize * 2 - 1) << 1;
+        this.outputs = (Output<ReturnType>[]) new Output<?>[condition == null ? 1 : 2];
+        for (int i = 0; i < outputs.length; i++) outputs[i] = new Output<>(this, capacity);
+    }
+
+    static <ParameterType, ReturnType> ConditionalProcessor<ParameterType, ReturnType> mapping(Function<ParameterType, ReturnType> rule, int batchSize) {
+        return new ConditionalProcessor<>(null, rule, null, batchSize);
+    }
+
+    //only rule(..).thenReturn(..).orElse(..) has exactly two branches to split into
+    static <ParameterType, ReturnType> ConditionalProcessor<ParameterType, ReturnType> splitting(Function<ParameterType, ReturnType> rule, int batchSize) {
+        if (!(rule instanceof FluentConditionals.RuleThenReturn.Compiled)) {
+            throw new IllegalArgumentException("Only a single-arm rule(..).thenReturn(..).orElse(..) can be split, got " + rule);
+        }
+        FluentConditionals.RuleThenReturn.Compiled<ParameterType, ReturnType> compiled = (FluentConditionals.RuleThenReturn.Compiled<ParameterType, ReturnType>) rule;
+        return new ConditionalProcessor<>(compiled.condition, compiled.function, compiled.elseFunction, batchSize);
+    }
+
+    //mapped items, or with split(..) the then-results
+    public Flow.Publisher<ReturnType> whenTrue() {
+        return outputs[0];
+    }
+
+    //with split(..) the else-results
+    public Flow.Publisher<ReturnType> whenFalse() {
+        if (outputs.length == 1) throw new IllegalStateException("Not a split processor, subscribe to the processor itself");
+        return outputs[1];
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ReturnType> subscriber) {
+        whenTrue().subscribe(subscriber);
+    }
+
+    //upstream side -------------------------------------------------------------------------------------------------
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        drain();
+    }
+
+    @Override
+    public void onNext(ParameterType item) {
+        if (item == null) throw new NullPointerException("Null item, reactive streams can't carry nulls");
+        if (done) return;
+        Output<ReturnType> output;
+        ReturnType result;
+        try {
+            if (condition == null) {
+                output = outputs[0];
+                result = function.apply(item);
+            } else if (condition.test(item)) {
+                output = outputs[0];
+                result = function.apply(item);
+            } else {
+                output = outputs[1];
+                result = elseFunction.apply(item);
+            }
+            if (result == null) throw new NullPointerException("Rule returned null for " + item + ", reactive streams can't carry nulls");
+        } catch (RuntimeException e) {
+            fail(e);
+            return;
+        }
+        //an upstream sending more than requested would otherwise overwrite items not yet emitted
+        if (!output.cancelled && output.buffer.free() == 0) {
+            fail(new IllegalStateException("upstream ignored backpressure"));
+            return;
+        }
+        //buffered before counted as received, so the drain loop can only underestimate the free space
+        if (!output.cancelled) output.buffer.offer(result);
+        received = received + 1;
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (done) return;
+        error = throwable;
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) return;
+        done = true;
+        drain();
+    }
+
+    //upstream is cancelled from the drain loop, calls on a subscription must not overlap
+    void fail(Throwable throwable) {
+        cancelUpstream = true;
+        onError(throwable);
+    }
+
+    //drain loop: the only place that signals downstream and requests upstream, one thread at a time ----------------
+
+    void drain() {
+        if (wip.getAndIncrement() != 0) return;
+        int missed = 1;
+        do {
+            boolean finished = done;
+            boolean allCancelled = true;
+            for (Output<ReturnType> output : outputs) {
+                output.emit(finished);
+                allCancelled &= output.cancelled;
+            }
+            Flow.Subscription subscription = upstream;
+            if (subscription != null && !upstreamCancelled) {
+                if (allCancelled || cancelUpstream) {
+                    upstreamCancelled = true;
+                    subscription.cancel();
+                } else if (!finished) {
+                    requestMore(subscription);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    //every outstanding item may land in the same branch, so each buffer must have room for all of them
+    private void requestMore(Flow.Subscription subscription) {
+        long outstanding = requested - received;
+        long free = Long.MAX_VALUE;
+        for (Output<ReturnType> output : outputs) {
+            if (!output.cancelled) free = Math.min(free, output.buffer.free());
+        }
+        long space = free - outstanding;
+        if (space >= batchSize || (outstanding == 0 && space > 0)) {
+            requested += space;
+            subscription.request(space);
+        }
+    }
+
+    //downstream side -------------------------------------------------------------------------------------------------
+
+    static final class Output<ReturnType> implements Flow.Publisher<ReturnType>, Flow.Subscription {
+
+        private final ConditionalProcessor<?, ReturnType> processor;
+        final Ring<ReturnType> buffer;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicBoolean subscribed = new AtomicBoolean();
+        private volatile Flow.Subscriber<? super ReturnType> subscriber;
+        volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        private boolean terminated;//drain loop only
+
+        Output(ConditionalProcessor<?, ReturnType> processor, int capacity) {
+            this.processor = processor;
+            this.buffer = new Ring<>(capacity);
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ReturnType> subscriber) {
+            if (!subscribed.compareAndSet(false, true)) {
+                subscriber.onSubscribe(NOTHING);
+                subscriber.onError(new IllegalStateException("Already subscribed, outputs of a ConditionalProcessor are unicast"));
+                return;
+            }
+            subscriber.onSubscribe(this);
+            this.subscriber = subscriber;
+            processor.drain();
+        }
+
+        //an invalid request ends this output only, the other branch of a split keeps flowing
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Non-positive request: " + n);
+                cancel();
+                return;
+            }
+            demand.getAndAccumulate(n, (current, more) -> current + more < 0 ? Long.MAX_VALUE : current + more);
+            processor.drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            processor.drain();
+        }
+
+        //runs inside the drain loop
+        void emit(boolean finished) {
+            Flow.Subscriber<? super ReturnType> subscriber = this.subscriber;
+            if (subscriber == null || terminated) return;
+            if (cancelled) {
+                terminated = true;
+                buffer.clear();
+                Throwable error = invalidRequest;
+                if (error != null) subscriber.onError(error);
+                return;
+            }
+            long wanted = demand.get();
+            long emitted = 0;
+            while (emitted != wanted && !cancelled) {
+                ReturnType item = buffer.poll();
+                if (item == null) break;
+                subscriber.onNext(item);
+                emitted++;
+            }
+            if (emitted != 0 && wanted != Long.MAX_VALUE) demand.addAndGet(-emitted);
+            if (finished && buffer.isEmpty() && !cancelled) {
+                terminated = true;
+                Throwable error = processor.error;
+                if (error != null) subscriber.onError(error);
+                else subscriber.onComplete();
+            }
+        }
+    }
+
+    private static final Flow.Subscription NOTHING = new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    //single-producer single-consumer bounded buffer, no allocation per item
+    static final class Ring<ItemType> {
+
+        private final AtomicReferenceArray<ItemType> items;
+        private final int mask;
+        private final AtomicLong producerIndex = new AtomicLong();
+        private final AtomicLong consumerIndex = new AtomicLong();
+
+        Ring(int capacity) {
+            this.items = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        //the processor checks free() first, upstream may not send more than it was requested against
+        void offer(ItemType item) {
+            long index = producerIndex.get();
+            items.lazySet((int) index & mask, item);
+            producerIndex.lazySet(index + 1);
+        }
+
+        ItemType poll() {
+            long index = consumerIndex.get();
+            if (index == producerIndex.get()) return null;
+            int slot = (int) index & mask;
+            ItemType item = items.get(slot);
+            items.lazySet(slot, null);
+            consumerIndex.lazySet(index + 1);
+            return item;
+        }
+
+        boolean isEmpty() {
+            return consumerIndex.get() == producerIndex.get();
+        }
+
+        long free() {
+            return items.length() - (producerIndex.get() - consumerIndex.get());
+        }
+
+        void clear() {
+            while (poll() != null) ;
+        }
+    }
+}
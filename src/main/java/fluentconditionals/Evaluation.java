@@ -0,0 +1,204 @@
+package fluentconditionals;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+//one timed evaluation of a named chain: the condition is evaluated on creation, then exactly one of run/get/fail/skip reports to the probe
+final class Evaluation {
+
+    private final Instrumentation.Probe probe;
+    private final long started;
+    private final long decided;
+    final boolean branch;
+
+    private Evaluation(Instrumentation.Probe probe, long started, boolean branch) {
+        this.probe = probe;
+        this.started = started;
+        this.branch = branch;
+        this.decided = System.nanoTime();
+    }
+
+    static Evaluation of(Instrumentation.Probe probe, BooleanSupplier condition) {
+        long started = System.nanoTime();
+        boolean branch;
+        try {
+            branch = condition.getAsBoolean();
+        } catch (RuntimeException | Error e) {
+            probe.conditionThrew(System.nanoTime() - started);
+            throw e;
+        }
+        return new Evaluation(probe, started, branch);
+    }
+
+    static <ParameterType> Evaluation of(Instrumentation.Probe probe, Predicate<ParameterType> condition, ParameterType parameter) {
+        long started = System.nanoTime();
+        boolean branch;
+        try {
+            branch = condition.test(parameter);
+        } catch (RuntimeException | Error e) {
+            probe.conditionThrew(System.nanoTime() - started);
+            throw e;
+        }
+        return new Evaluation(probe, started, branch);
+    }
+
+    void run(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException | Error e) {
+            report(true);
+            throw e;
+        }
+        report(false);
+    }
+
+    <ReturnType> ReturnType get(Supplier<ReturnType> supplier) {
+        ReturnType result;
+        try {
+            result = supplier.get();
+        } catch (RuntimeException | Error e) {
+            report(true);
+            throw e;
+        }
+        report(false);
+        return result;
+    }
+
+    <ParameterType, ReturnType> ReturnType get(Function<ParameterType, ReturnType> function, ParameterType parameter) {
+        ReturnType result;
+        try {
+            result = function.apply(parameter);
+        } catch (RuntimeException | Error e) {
+            report(true);
+            throw e;
+        }
+        report(false);
+        return result;
+    }
+
+    //primitive branches, neither boxed nor wrapped in a Supplier
+
+    int getInt(IntSupplier supplier) {
+        int result;
+        try {
+            result = supplier.getAsInt();
+        } catch (RuntimeException | Error e) {
+            report(true);
+            throw e;
+        }
+        report(false);
+        return result;
+    }
+
+    <ParameterType> int getInt(ToIntFunction<ParameterType> function, ParameterType parameter) {
+        int result;
+        try {
+            result = function.applyAsInt(parameter);
+        } catch (RuntimeException | Error e) {
+            report(true);
+            throw e;
+        }
+        report(false);
+        return result;
+    }
+
+    long getLong(LongSupplier supplier) {
+        long result;
+        try {
+            result = supplier.getAsLong();
+        } catch (RuntimeException | Error e) {
+            report(true);
+            throw e;
+        }
+        report(false);
+        return result;
+    }
+
+    <ParameterType> long getLong(ToLongFunction<ParameterType> function, ParameterType parameter) {
+        long result;
+        try {
+            result = function.applyAsLong(parameter);
+        } catch (RuntimeException | Error e) {
+            report(true);
+            throw e;
+        }
+        report(false);
+        return result;
+    }
+
+    double getDouble(DoubleSupplier supplier) {
+        double result;
+        try {
+            result = supplier.getAsDouble();
+        } catch (RuntimeException | Error e) {
+            report(true);
+            throw e;
+        }
+        report(false);
+        return result;
+    }
+
+    <ParameterType> double getDouble(ToDoubleFunction<ParameterType> function, ParameterType parameter) {
+        double result;
+        try {
+            result = function.applyAsDouble(parameter);
+        } catch (RuntimeException | Error e) {
+            report(true);
+            throw e;
+        }
+        report(false);
+        return result;
+    }
+
+    boolean getBoolean(BooleanSupplier supplier) {
+        boolean result;
+        try {
+            result = supplier.getAsBoolean();
+        } catch (RuntimeException | Error e) {
+            report(true);
+            throw e;
+        }
+        report(false);
+        return result;
+    }
+
+    <ParameterType> boolean getBoolean(Predicate<ParameterType> function, ParameterType parameter) {
+        boolean result;
+        try {
+            result = function.test(parameter);
+        } catch (RuntimeException | Error e) {
+            report(true);
+            throw e;
+        }
+        report(false);
+        return result;
+    }
+
+    //the exception for the caller to throw
+    <ExceptionType extends Throwable> ExceptionType fail(Supplier<ExceptionType> exception) {
+        ExceptionType thrown;
+        try {
+            thrown = exception.get();
+        } finally {
+            report(true);
+        }
+        return thrown;
+    }
+
+    //branch with nothing to run, e.g. a false thenThrow(..)
+    void skip() {
+        report(false);
+    }
+
+    private void report(boolean threw) {
+        probe.evaluated(branch, decided - started, System.nanoTime() - decided, threw);
+    }
+}
@@ -0,0 +1,100 @@
+package fluentconditionals;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+//a scope in which every shared condition is evaluated at most once, however many chains ask for it:
+//  static final Shared IS_PREMIUM = shared(() -> users.isPremium(id()));
+//  try (EvaluationContext context = EvaluationContext.open()) { ..when(IS_PREMIUM).. ..when(IS_PREMIUM.and(..)).. }
+//results sit in flat arrays indexed by the condition's key; closing the scope (or reset()) forgets them in O(1)
+//one context per thread is pooled and reused by open(); a nested open() gets a fresh one
+public final class EvaluationContext implements AutoCloseable {
+
+    private static final AtomicInteger KEYS = new AtomicInteger();
+    private static final ThreadLocal<EvaluationContext> POOLED = ThreadLocal.withInitial(EvaluationContext::new);
+    private static final ThreadLocal<EvaluationContext> CURRENT = new ThreadLocal<>();
+
+    //a key's result is valid while evaluatedIn[key] equals the current generation
+    private int generation = 1;
+    private int[] evaluatedIn = new int[16];
+    private boolean[] values = new boolean[16];
+
+    private boolean open;
+    private EvaluationContext enclosing;
+
+    EvaluationContext() {
+    }
+
+    public static EvaluationContext open() {
+        EvaluationContext context = POOLED.get();
+        if (context.open) context = new EvaluationContext();
+        context.enclosing = CURRENT.get();
+        context.open = true;
+        CURRENT.set(context);
+        return context;
+    }
+
+    //the scope's context, null outside any scope
+    public static EvaluationContext current() {
+        return CURRENT.get();
+    }
+
+    //forget every result, e.g. between two requests handled in one scope
+    public void reset() {
+        if (++generation == 0) {
+            //wrapped around - stale entries could look current again
+            Arrays.fill(evaluatedIn, 0);
+            generation = 1;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!open) return;
+        if (enclosing == null) CURRENT.remove();
+        else CURRENT.set(enclosing);
+        enclosing = null;
+        open = false;
+        reset();
+    }
+
+    boolean test(int key, BooleanSupplier condition) {
+        if (key >= evaluatedIn.length) grow(key);
+        if (evaluatedIn[key] == generation) return values[key];
+        //a throwing condition is not remembered, the next chain asking for it evaluates it again
+        boolean value = condition.getAsBoolean();
+        values[key] = value;
+        evaluatedIn[key] = generation;
+        return value;
+    }
+
+    private void grow(int key) {
+        int length = Math.max(evaluatedIn.length * 2, key + 1);
+        evaluatedIn = Arrays.copyOf(evaluatedIn, length);
+        values = Arrays.copyOf(values, length);
+    }
+
+    //a condition with a key, remembered by the current scope's context; evaluated every time outside a scope
+    public static final class Shared implements Condition {
+
+        private final int key;
+        private final BooleanSupplier condition;
+
+        Shared(BooleanSupplier condition) {
+            this.key = KEYS.getAndIncrement();
+            this.condition = condition;
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            EvaluationContext context = CURRENT.get();
+            return context == null ? condition.getAsBoolean() : context.test(key, condition);
+        }
+
+        //explicit context, skips the thread-local lookup
+        public boolean in(EvaluationContext context) {
+            return context.test(key, condition);
+        }
+    }
+}
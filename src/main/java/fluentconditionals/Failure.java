@@ -0,0 +1,46 @@
+package fluentconditionals;
+
+import java.util.function.Supplier;
+
+//a reusable failure description: message template plus arguments, formatted lazily
+//keep constant failures in static finals; orElseFail(..) then returns them as they are, without allocating
+//as a Supplier it plugs into orElseThrow(..) and thenThrow(..), throwing a StacklessException
+public final class Failure extends Result<Object> implements Supplier<StacklessException> {
+
+    private final String messageTemplate;
+    private final Object[] arguments;
+
+    Failure(String messageTemplate, Object[] arguments) {
+        this.messageTemplate = messageTemplate;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public boolean isSuccess() {
+        return false;
+    }
+
+    @Override
+    public Object value() {
+        throw exception();
+    }
+
+    @Override
+    public String message() {
+        return StacklessException.format(messageTemplate, arguments);
+    }
+
+    public StacklessException exception() {
+        return new StacklessException(messageTemplate, arguments);
+    }
+
+    @Override
+    public StacklessException get() {
+        return exception();
+    }
+
+    @Override
+    public String toString() {
+        return "Failure[" + message() + "]";
+    }
+}
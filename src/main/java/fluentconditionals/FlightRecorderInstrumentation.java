@@ -0,0 +1,89 @@
+package fluentconditionals;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+//flight recorder events for slow evaluations of named chains, to be found next to the slow request in a recording
+//  Instrumentation.install(new FlightRecorderInstrumentation(Duration.ofMillis(1)).and(metrics))
+//evaluations under the threshold cost a subtraction and a compare, nothing is allocated for them
+public final class FlightRecorderInstrumentation implements Instrumentation {
+
+    private final long thresholdNanos;
+    private final ConcurrentHashMap<String, Probe> probes = new ConcurrentHashMap<>();
+
+    public FlightRecorderInstrumentation(Duration threshold) {
+        if (threshold.isNegative()) throw new IllegalArgumentException("Negative threshold: " + threshold);
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public Probe probe(String name) {
+        Probe probe = probes.get(name);
+        return probe != null ? probe : probes.computeIfAbsent(name, ChainProbe::new);
+    }
+
+    @Name("fluentconditionals.Evaluation")
+    @Label("Conditional Evaluation")
+    @Category("Fluent Conditionals")
+    @Description("Evaluation of a named chain that took longer than the configured threshold")
+    @StackTrace(false)
+    static final class EvaluationEvent extends Event {
+
+        @Label("Chain")
+        String chain;
+
+        @Label("Branch")
+        @Description("then, else, or none when the condition threw")
+        String branch;
+
+        @Label("Condition Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long conditionDuration;
+
+        @Label("Branch Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long branchDuration;
+
+        @Label("Thrown")
+        boolean thrown;
+    }
+
+    private final class ChainProbe implements Probe {
+
+        private final String name;
+
+        ChainProbe(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void evaluated(boolean branch, long conditionNanos, long branchNanos, boolean threw) {
+            if (conditionNanos + branchNanos >= thresholdNanos) commit(branch ? "then" : "else", conditionNanos, branchNanos, threw);
+        }
+
+        @Override
+        public void conditionThrew(long conditionNanos) {
+            if (conditionNanos >= thresholdNanos) commit("none", conditionNanos, 0, true);
+        }
+
+        //short-lived, so escape analysis usually removes the event allocation when no recording is running
+        private void commit(String branch, long conditionNanos, long branchNanos, boolean threw) {
+            EvaluationEvent event = new EvaluationEvent();
+            if (!event.isEnabled()) return;
+            event.chain = name;
+            event.branch = branch;
+            event.conditionDuration = conditionNanos;
+            event.branchDuration = branchNanos;
+            event.thrown = threw;
+            event.commit();
+        }
+    }
+}
@@ -1,9 +1,27 @@
 package fluentconditionals;
 
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
 import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 @SuppressWarnings("SameParameterValue")
 public interface FluentConditionals {
@@ -16,294 +34,2313 @@ public interface FluentConditionals {
         return t -> {};
     }
 
+    //thread-safe, evaluated on the first get() only - for parameters coming from remote lookups or parsing
+    static <T> Supplier<T> memoized(Supplier<T> supplier) {
+        return new Memoized<>(supplier);
+    }
+
+    //re-evaluated at most once per timeToLive, stale callers never stampede - keep it in a field and reuse it
+    static CachedCondition cached(BooleanSupplier condition, Duration timeToLive) {
+        return new CachedCondition(condition, timeToLive, null);
+    }
+
+    //as above, but the refresh runs on the executor while callers keep getting the previous value
+    static CachedCondition cached(BooleanSupplier condition, Duration timeToLive, Executor refresher) {
+        return new CachedCondition(condition, timeToLive, refresher);
+    }
+
+    //evaluated at most once per EvaluationContext scope, however many chains use it - keep it in a static final
+    static EvaluationContext.Shared shared(BooleanSupplier condition) {
+        return new EvaluationContext.Shared(condition);
+    }
+
+    //waits for the condition to hold, at most for the timeout, then concludes like any when(..) - orElse/orElseThrow on timeout
+    static When whenEventually(BooleanSupplier condition, Duration timeout) {
+        return new When.Impl(new Await(condition, timeout, null));
+    }
+
+    //as above, parked waiters are woken by signal.signalAll() instead of polling
+    static When whenEventually(BooleanSupplier condition, Duration timeout, Signal signal) {
+        return new When.Impl(new Await(condition, timeout, signal));
+    }
+
+    //true as soon as the condition holds, false once the timeout passes
+    static boolean awaitWhen(BooleanSupplier condition, Duration timeout) {
+        return new Await(condition, timeout, null).getAsBoolean();
+    }
+
+    static boolean awaitWhen(BooleanSupplier condition, Duration timeout, Signal signal) {
+        return new Await(condition, timeout, signal).getAsBoolean();
+    }
+
+    static Signal signal() {
+        return new Signal();
+    }
+
+    //reusable sampling conditions, lock-free and allocation-free per evaluation - see Sampling
+    static Sampling.Probability sampled(double probability) {
+        return new Sampling.Probability(probability);
+    }
+
+    //stateful, keep it in a static final: a fresh counter per call would always let the call through
+    static Sampling.EveryNth everyNth(long n) {
+        return new Sampling.EveryNth(n);
+    }
+
+    //stateful, keep it in a static final; permits are spread evenly, no bursts
+    static Sampling.RateLimit atMostPerSecond(double permits) {
+        return new Sampling.RateLimit(permits, 1);
+    }
+
+    //as above, up to burst permits may be taken back to back after a quiet period
+    static Sampling.RateLimit atMostPerSecond(double permits, int burst) {
+        return new Sampling.RateLimit(permits, burst);
+    }
+
+    //executor and counters for thenReturn(..).speculative(..) chains - keep it in a static final
+    static Speculation speculation(Executor executor) {
+        return new Speculation(executor);
+    }
+
+    //bounded LRU of per-parameter results, attach it with given(..).when(..).cachedIn(..) or thenReturn(..).cachedIn(..)
+    static <KeyType, ValueType> ResultCache<KeyType, ValueType> resultCache(int maximumSize) {
+        return new ResultCache<>(maximumSize);
+    }
+
     //entry points ----------------------------------------------------------------------------------------------
 
     static When when(BooleanSupplier condition) {
         return new When.Impl(condition);
     }
 
-    static When when(boolean condition) {
-        return when(() -> condition);
-    }
+    //the sampling conditions take the instance kept in a static final, so a chain allocates no more than any when(..)
+    static When whenSampled(Sampling.Probability probability) {
+        return new When.Impl(probability);
+    }
+
+    static When whenEveryNth(Sampling.EveryNth counter) {
+        return new When.Impl(counter);
+    }
+
+    static When whenAtMostPerSecond(Sampling.RateLimit limit) {
+        return new When.Impl(limit);
+    }
+
+    //pre-evaluated condition: shared constant stage, nothing captured
+    static When when(boolean condition) {
+        return condition ? When.Impl.TRUE : When.Impl.FALSE;
+    }
+
+    static <ParameterType> Given<ParameterType> given(ParameterType parameter) {
+        return new Given.Value<>(parameter);
+    }
+
+    static <ParameterType> Given<ParameterType> given(Supplier<ParameterType> parameter) {
+        return new Given.Impl<>(parameter);
+    }
+
+    //non-blocking: condition and branches complete a CompletionStage on the executor
+    static WhenAsync whenAsync(Supplier<? extends CompletionStage<Boolean>> condition) {
+        return whenAsync(condition, WhenAsync.DEFAULT_EXECUTOR);
+    }
+
+    static WhenAsync whenAsync(Supplier<? extends CompletionStage<Boolean>> condition, Executor executor) {
+        return new WhenAsync.Impl(condition, executor);
+    }
+
+    //failure described by a "{}" message template, formatted only if someone reads it - preallocate constant ones
+    static Failure failure(String messageTemplate, Object... arguments) {
+        return new Failure(messageTemplate, arguments);
+    }
+
+    //accumulating validation: all checks run, violations reported together
+    static <TargetType> Validation.Bound<TargetType> validate(TargetType target) {
+        return new Validation.Bound.Impl<>(target);
+    }
+
+    //as above, compiled once by build() into a reusable Validator
+    static <TargetType> Validation.Unbound<TargetType> validator(Class<TargetType> targetType) {
+        return new Validation.Unbound.Impl<>();
+    }
+
+    //condition algebra, short-circuiting; the adaptive variants reorder their terms at runtime (terms must commute)
+    static Condition allOf(BooleanSupplier... conditions) {
+        return Condition.allOf(conditions);
+    }
+
+    static Condition anyOf(BooleanSupplier... conditions) {
+        return Condition.anyOf(conditions);
+    }
+
+    static Condition not(BooleanSupplier condition) {
+        return () -> !condition.getAsBoolean();
+    }
+
+    static AdaptiveCondition adaptiveAllOf(BooleanSupplier... conditions) {
+        return AdaptiveCondition.allOf(conditions);
+    }
+
+    static AdaptiveCondition adaptiveAnyOf(BooleanSupplier... conditions) {
+        return AdaptiveCondition.anyOf(conditions);
+    }
+
+    //bulk: one chain applied to every element, see GivenEach.parallel(..) for fork/join evaluation
+    static <ParameterType> GivenEach<ParameterType> givenEach(List<ParameterType> parameters) {
+        return new GivenEach.Impl<>(parameters, null, null, GivenEach.DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    static <ParameterType> GivenEach<ParameterType> givenEach(ParameterType[] parameters) {
+        return givenEach(Arrays.asList(parameters));
+    }
+
+    static <ParameterType> GivenEach<ParameterType> givenEach(Stream<ParameterType> parameters) {
+        return new GivenEach.Impl<>(null, parameters, null, GivenEach.DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    //reusable: the chain is built once, the parameter arrives at apply/accept time
+    static <ParameterType> Rule<ParameterType> rule(Predicate<ParameterType> condition) {
+        return new Rule.Impl<>(condition);
+    }
+
+    //named rules evaluated per event, indexed on declared attributes and hot-swappable while being evaluated
+    static <ParameterType> RuleSet<ParameterType> ruleSet() {
+        return new RuleSet<>();
+    }
+
+    //rules read from a text file, see RuleLoader for the format - declare the fields, then reload()
+    static <ParameterType> RuleLoader<ParameterType> ruleLoader(Path file) {
+        return new RuleLoader<>(file);
+    }
+
+    //a prebuilt rule (rule(..).thenReturn(..).orElse(..), any ladder) mapped over a Flow stream with request-n backpressure
+    static <ParameterType, ReturnType> ConditionalProcessor<ParameterType, ReturnType> process(Function<ParameterType, ReturnType> rule) {
+        return ConditionalProcessor.mapping(rule, ConditionalProcessor.DEFAULT_BATCH_SIZE);
+    }
+
+    //upstream is requested batchSize items at a time, and at most two batches are buffered
+    static <ParameterType, ReturnType> ConditionalProcessor<ParameterType, ReturnType> process(Function<ParameterType, ReturnType> rule, int batchSize) {
+        return ConditionalProcessor.mapping(rule, batchSize);
+    }
+
+    //as above, then-results published by whenTrue() and else-results by whenFalse() - single-arm rules only
+    static <ParameterType, ReturnType> ConditionalProcessor<ParameterType, ReturnType> split(Function<ParameterType, ReturnType> rule) {
+        return ConditionalProcessor.splitting(rule, ConditionalProcessor.DEFAULT_BATCH_SIZE);
+    }
+
+    static <ParameterType, ReturnType> ConditionalProcessor<ParameterType, ReturnType> split(Function<ParameterType, ReturnType> rule, int batchSize) {
+        return ConditionalProcessor.splitting(rule, batchSize);
+    }
+
+    //conditions over a whole primitive column, giving a Selection bitmap to combine and select(then, else) from
+    //the array is not copied, later writes to it show in later conditions
+    static Column.Ints column(int[] values) {
+        return new Column.Ints(values);
+    }
+
+    static Column.Longs column(long[] values) {
+        return new Column.Longs(values);
+    }
+
+    static Column.Doubles column(double[] values) {
+        return new Column.Doubles(values);
+    }
+
+    //reusable type dispatch, routed through a ClassValue: one lookup per call regardless of the number of arms
+    static <T> TypeSwitch.Start<T> whenInstanceOf(Class<T> type) {
+        return new TypeSwitch.Start.Impl<>(type);
+    }
+
+    //compiled rule as a method handle of type (Object)Object - keep it in a static final and call invokeExact
+    //the JIT then treats the whole chain as a constant and inlines it at the call site, however polluted the shared profile is
+    static MethodHandle compile(Function<?, ?> rule) {
+        return ChainCompiler.compile(rule);
+    }
+
+    //as above for then(..) rules, type (Object)void - named apart so a lambda argument is never ambiguous
+    static MethodHandle compileAction(Consumer<?> rule) {
+        return ChainCompiler.compileAction(rule);
+    }
+
+    //reusable, arms chosen by equality on an extracted key: one hash lookup regardless of the number of arms
+    static <ParameterType, KeyType> Select<ParameterType, KeyType> select(Function<ParameterType, KeyType> key) {
+        return new Select.Impl<>(key);
+    }
+
+    final class Memoized<T> implements Supplier<T> {
+
+        private volatile Supplier<T> supplier;
+        private T value;
+
+        Memoized(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public T get() {
+            if (supplier != null) {
+                synchronized (this) {
+                    Supplier<T> s = supplier;
+                    if (s != null) {
+                        value = s.get();
+                        supplier = null;
+                    }
+                }
+            }
+            return value;
+        }
+    }
+
+    //middle tier -----------------------------------------------------------------------------------------------
+
+    interface When {
+        When and(BooleanSupplier other);
+        When or(BooleanSupplier other);
+
+        //opt-in instrumentation: true/false/throw counts and latencies reported under this name, see Instrumentation
+        When named(String name);
+
+        WhenThenExecute then(Runnable action);
+
+        <ReturnType> WhenThenReturn<ReturnType> thenReturn(Supplier<ReturnType> supplier);
+        default <ReturnType> WhenThenReturn<ReturnType> thenReturn(ReturnType value) {
+            return thenReturn(() -> value);
+        }
+
+        //primitive specializations, no boxing on either branch
+        WhenThenReturnInt thenReturnInt(IntSupplier supplier);
+        default WhenThenReturnInt thenReturnInt(int value) {
+            return thenReturnInt(() -> value);
+        }
+
+        WhenThenReturnLong thenReturnLong(LongSupplier supplier);
+        default WhenThenReturnLong thenReturnLong(long value) {
+            return thenReturnLong(() -> value);
+        }
+
+        WhenThenReturnDouble thenReturnDouble(DoubleSupplier supplier);
+        default WhenThenReturnDouble thenReturnDouble(double value) {
+            return thenReturnDouble(() -> value);
+        }
+
+        WhenThenReturnBoolean thenReturnBoolean(BooleanSupplier supplier);
+        default WhenThenReturnBoolean thenReturnBoolean(boolean value) {
+            return thenReturnBoolean(() -> value);
+        }
+
+        <ExceptionType extends Throwable> void thenThrow(Function<String, ExceptionType> exceptionFactory, String exceptionMessage) throws ExceptionType;
+
+        //pass a Failure or a supplier of a preallocated exception to skip building a new one with its stack trace
+        <ExceptionType extends Throwable> void thenThrow(Supplier<ExceptionType> exception) throws ExceptionType;
+
+        class Impl implements When {
+
+            static final BooleanSupplier ALWAYS = () -> true;
+            static final BooleanSupplier NEVER = () -> false;
+            static final When TRUE = new Impl(ALWAYS);
+            static final When FALSE = new Impl(NEVER);
+
+            private final BooleanSupplier condition;
+
+            Impl(BooleanSupplier condition) {
+                this.condition = condition;
+            }
+
+            @Override
+            public When and(BooleanSupplier other) {
+                return new Impl(Condition.of(condition).and(other));
+            }
+
+            @Override
+            public When or(BooleanSupplier other) {
+                return new Impl(Condition.of(condition).or(other));
+            }
+
+            @Override
+            public When named(String name) {
+                Instrumentation.Probe probe = Instrumentation.Installed.probe(name);
+                return probe == null ? this : new Named(condition, probe);
+            }
+
+            @Override
+            public WhenThenExecute then(Runnable action) {
+                return new WhenThenExecute.Impl(condition, action);
+            }
+
+            @Override
+            public <ReturnType> WhenThenReturn<ReturnType> thenReturn(Supplier<ReturnType> supplier) {
+                return new WhenThenReturn.Impl<>(condition, supplier);
+            }
+
+            @Override
+            public WhenThenReturnInt thenReturnInt(IntSupplier supplier) {
+                return new WhenThenReturnInt.Impl(condition, supplier);
+            }
+
+            @Override
+            public WhenThenReturnLong thenReturnLong(LongSupplier supplier) {
+                return new WhenThenReturnLong.Impl(condition, supplier);
+            }
+
+            @Override
+            public WhenThenReturnDouble thenReturnDouble(DoubleSupplier supplier) {
+                return new WhenThenReturnDouble.Impl(condition, supplier);
+            }
+
+            @Override
+            public WhenThenReturnBoolean thenReturnBoolean(BooleanSupplier supplier) {
+                return new WhenThenReturnBoolean.Impl(condition, supplier);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> void thenThrow(Function<String, ExceptionType> exceptionFactory, String exceptionMessage) throws ExceptionType {
+                if(condition.getAsBoolean()) throw exceptionFactory.apply(exceptionMessage);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> void thenThrow(Supplier<ExceptionType> exception) throws ExceptionType {
+                if(condition.getAsBoolean()) throw exception.get();
+            }
+        }
+
+        //named(..) with an Instrumentation installed
+        class Named implements When {
+
+            private final BooleanSupplier condition;
+            private final Instrumentation.Probe probe;
+
+            Named(BooleanSupplier condition, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.probe = probe;
+            }
+
+            @Override
+            public When and(BooleanSupplier other) {
+                return new Named(Condition.of(condition).and(other), probe);
+            }
+
+            @Override
+            public When or(BooleanSupplier other) {
+                return new Named(Condition.of(condition).or(other), probe);
+            }
+
+            @Override
+            public When named(String name) {
+                return new Impl(condition).named(name);
+            }
+
+            @Override
+            public WhenThenExecute then(Runnable action) {
+                return new WhenThenExecute.Named(condition, action, probe);
+            }
+
+            @Override
+            public <ReturnType> WhenThenReturn<ReturnType> thenReturn(Supplier<ReturnType> supplier) {
+                return new WhenThenReturn.Named<>(condition, supplier, probe);
+            }
+
+            @Override
+            public WhenThenReturnInt thenReturnInt(IntSupplier supplier) {
+                return new WhenThenReturnInt.Named(condition, supplier, probe);
+            }
+
+            @Override
+            public WhenThenReturnLong thenReturnLong(LongSupplier supplier) {
+                return new WhenThenReturnLong.Named(condition, supplier, probe);
+            }
+
+            @Override
+            public WhenThenReturnDouble thenReturnDouble(DoubleSupplier supplier) {
+                return new WhenThenReturnDouble.Named(condition, supplier, probe);
+            }
+
+            @Override
+            public WhenThenReturnBoolean thenReturnBoolean(BooleanSupplier supplier) {
+                return new WhenThenReturnBoolean.Named(condition, supplier, probe);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> void thenThrow(Function<String, ExceptionType> exceptionFactory, String exceptionMessage) throws ExceptionType {
+                thenThrow(() -> exceptionFactory.apply(exceptionMessage));
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> void thenThrow(Supplier<ExceptionType> exception) throws ExceptionType {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                if (evaluation.branch) throw evaluation.fail(exception);
+                evaluation.skip();
+            }
+        }
+    }
+
+    interface Given<ParameterType> {
+        //the parameter is obtained once per evaluation and handed to the condition, the branch and the else branch
+        GivenWhen<ParameterType> when(Predicate<ParameterType> condition);
+
+        default GivenWhen<ParameterType> whenNot(Predicate<ParameterType> condition) {
+            return when(condition.negate());
+        }
+
+        //the supplier is called as is, without adapting it to a predicate
+        GivenWhen<ParameterType> when(BooleanSupplier condition);
+
+        default GivenWhen<ParameterType> when(boolean condition) {
+            return when(GivenWhen.Impl.constant(condition));
+        }
+
+        //single type test with the cast done for the branch; for many types use the reusable whenInstanceOf(..) dispatcher
+        default <T> GivenWhenInstanceOf<ParameterType, T> whenInstanceOf(Class<T> type) {
+            return new GivenWhenInstanceOf.Impl<>(when(type::isInstance), type);
+        }
+
+        class Impl<ParameterType> implements Given<ParameterType> {
+
+            private final Supplier<ParameterType> parameter;
+
+            Impl(Supplier<ParameterType> parameter) {
+                this.parameter = parameter;
+            }
+
+            @Override
+            public GivenWhen<ParameterType> when(Predicate<ParameterType> condition) {
+                return new GivenWhen.Impl<>(condition, parameter);
+            }
+
+            @Override
+            public GivenWhen<ParameterType> when(BooleanSupplier condition) {
+                return new GivenWhen.Supplied<>(condition, parameter);
+            }
+        }
+
+        //eager parameter: the stage is its own supplier, so no capturing lambda is needed
+        class Value<ParameterType> implements Given<ParameterType>, Supplier<ParameterType> {
+
+            private final ParameterType parameter;
+
+            Value(ParameterType parameter) {
+                this.parameter = parameter;
+            }
+
+            @Override
+            public GivenWhen<ParameterType> when(Predicate<ParameterType> condition) {
+                return new GivenWhen.Impl<>(condition, this);
+            }
+
+            @Override
+            public GivenWhen<ParameterType> when(BooleanSupplier condition) {
+                return new GivenWhen.Supplied<>(condition, this);
+            }
+
+            @Override
+            public ParameterType get() {
+                return parameter;
+            }
+        }
+    }
+
+    interface GivenWhenInstanceOf<ParameterType, T> {
+        GivenWhenThenExecute<ParameterType> then(Consumer<? super T> consumer);
+        <ReturnType> GivenWhenThenReturn<ParameterType, ReturnType> thenReturn(Function<? super T, ? extends ReturnType> function);
+
+        class Impl<ParameterType, T> implements GivenWhenInstanceOf<ParameterType, T> {
+
+            private final GivenWhen<ParameterType> when;
+            private final Class<T> type;
+
+            Impl(GivenWhen<ParameterType> when, Class<T> type) {
+                this.when = when;
+                this.type = type;
+            }
+
+            @Override
+            public GivenWhenThenExecute<ParameterType> then(Consumer<? super T> consumer) {
+                return when.then(p -> consumer.accept(type.cast(p)));
+            }
+
+            @Override
+            public <ReturnType> GivenWhenThenReturn<ParameterType, ReturnType> thenReturn(Function<? super T, ? extends ReturnType> function) {
+                return when.thenReturn(p -> function.apply(type.cast(p)));
+            }
+        }
+    }
+
+    interface GivenWhen<ParameterType> {
+        GivenWhenThenExecute<ParameterType> then(Consumer<ParameterType> consumer);
+        <ReturnType> GivenWhenThenReturn<ParameterType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function);
+        default <ReturnType> GivenWhenThenReturn<ParameterType, ReturnType> thenReturn(Supplier<ReturnType> supplier) {
+            return thenReturn(t -> supplier.get());
+        }
+
+        GivenWhenThenReturnInt<ParameterType> thenReturnInt(ToIntFunction<ParameterType> function);
+        default GivenWhenThenReturnInt<ParameterType> thenReturnInt(IntSupplier supplier) {
+            return thenReturnInt(t -> supplier.getAsInt());
+        }
+
+        GivenWhenThenReturnLong<ParameterType> thenReturnLong(ToLongFunction<ParameterType> function);
+        default GivenWhenThenReturnLong<ParameterType> thenReturnLong(LongSupplier supplier) {
+            return thenReturnLong(t -> supplier.getAsLong());
+        }
+
+        GivenWhenThenReturnDouble<ParameterType> thenReturnDouble(ToDoubleFunction<ParameterType> function);
+        default GivenWhenThenReturnDouble<ParameterType> thenReturnDouble(DoubleSupplier supplier) {
+            return thenReturnDouble(t -> supplier.getAsDouble());
+        }
+
+        GivenWhenThenReturnBoolean<ParameterType> thenReturnBoolean(Predicate<ParameterType> function);
+        default GivenWhenThenReturnBoolean<ParameterType> thenReturnBoolean(BooleanSupplier supplier) {
+            return thenReturnBoolean(t -> supplier.getAsBoolean());
+        }
+
+        //condition evaluated once per distinct parameter while it stays in the cache
+        GivenWhen<ParameterType> cachedIn(ResultCache<ParameterType, Boolean> cache);
+
+        //opt-in instrumentation: true/false/throw counts and latencies reported under this name, see Instrumentation
+        GivenWhen<ParameterType> named(String name);
+
+        class Impl<ParameterType> implements GivenWhen<ParameterType> {
+
+            private static final Predicate<Object> ALWAYS = t -> true;
+            private static final Predicate<Object> NEVER = t -> false;
+
+            @SuppressWarnings("unchecked")
+            static <ParameterType> Predicate<ParameterType> constant(boolean condition) {
+                return (Predicate<ParameterType>) (condition ? ALWAYS : NEVER);
+            }
+
+            private final Predicate<ParameterType> condition;
+            private final Supplier<ParameterType> parameter;
+
+            Impl(Predicate<ParameterType> condition, Supplier<ParameterType> parameter) {
+                this.condition = condition;
+                this.parameter = parameter;
+            }
+
+            @Override
+            public GivenWhenThenExecute<ParameterType> then(Consumer<ParameterType> consumer) {
+                return new GivenWhenThenExecute.Impl<>(condition, consumer, parameter);
+            }
+
+            @Override
+            public <ReturnType> GivenWhenThenReturn<ParameterType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function) {
+                return new GivenWhenThenReturn.Impl<>(condition, function, parameter);
+            }
+
+            @Override
+            public GivenWhenThenReturnInt<ParameterType> thenReturnInt(ToIntFunction<ParameterType> function) {
+                return new GivenWhenThenReturnInt.Impl<>(condition, function, parameter);
+            }
+
+            @Override
+            public GivenWhenThenReturnLong<ParameterType> thenReturnLong(ToLongFunction<ParameterType> function) {
+                return new GivenWhenThenReturnLong.Impl<>(condition, function, parameter);
+            }
+
+            @Override
+            public GivenWhenThenReturnDouble<ParameterType> thenReturnDouble(ToDoubleFunction<ParameterType> function) {
+                return new GivenWhenThenReturnDouble.Impl<>(condition, function, parameter);
+            }
+
+            @Override
+            public GivenWhenThenReturnBoolean<ParameterType> thenReturnBoolean(Predicate<ParameterType> function) {
+                return new GivenWhenThenReturnBoolean.Impl<>(condition, function, parameter);
+            }
+
+            @Override
+            public GivenWhen<ParameterType> cachedIn(ResultCache<ParameterType, Boolean> cache) {
+                return new GivenWhen.Impl<>(p -> cache.get(p, condition::test), parameter);
+            }
+
+            @Override
+            public GivenWhen<ParameterType> named(String name) {
+                Instrumentation.Probe probe = Instrumentation.Installed.probe(name);
+                return probe == null ? this : new Named<>(condition, parameter, probe);
+            }
+        }
+
+        //when(BooleanSupplier): then(..) and thenReturn(..) call the supplier directly,
+        //the other stages take it through the predicate path
+        class Supplied<ParameterType> implements GivenWhen<ParameterType> {
+
+            private final BooleanSupplier condition;
+            private final Supplier<ParameterType> parameter;
+
+            Supplied(BooleanSupplier condition, Supplier<ParameterType> parameter) {
+                this.condition = condition;
+                this.parameter = parameter;
+            }
+
+            @Override
+            public GivenWhenThenExecute<ParameterType> then(Consumer<ParameterType> consumer) {
+                return new GivenWhenThenExecute.Supplied<>(condition, consumer, parameter);
+            }
+
+            @Override
+            public <ReturnType> GivenWhenThenReturn<ParameterType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function) {
+                return new GivenWhenThenReturn.Supplied<>(condition, function, parameter);
+            }
+
+            @Override
+            public GivenWhenThenReturnInt<ParameterType> thenReturnInt(ToIntFunction<ParameterType> function) {
+                return predicate().thenReturnInt(function);
+            }
+
+            @Override
+            public GivenWhenThenReturnLong<ParameterType> thenReturnLong(ToLongFunction<ParameterType> function) {
+                return predicate().thenReturnLong(function);
+            }
+
+            @Override
+            public GivenWhenThenReturnDouble<ParameterType> thenReturnDouble(ToDoubleFunction<ParameterType> function) {
+                return predicate().thenReturnDouble(function);
+            }
+
+            @Override
+            public GivenWhenThenReturnBoolean<ParameterType> thenReturnBoolean(Predicate<ParameterType> function) {
+                return predicate().thenReturnBoolean(function);
+            }
+
+            @Override
+            public GivenWhen<ParameterType> cachedIn(ResultCache<ParameterType, Boolean> cache) {
+                return predicate().cachedIn(cache);
+            }
+
+            @Override
+            public GivenWhen<ParameterType> named(String name) {
+                return predicate().named(name);
+            }
+
+            private GivenWhen<ParameterType> predicate() {
+                return new Impl<>(supplied(condition), parameter);
+            }
+
+            static <ParameterType> Predicate<ParameterType> supplied(BooleanSupplier condition) {
+                return t -> condition.getAsBoolean();
+            }
+        }
+
+        //named(..) with an Instrumentation installed
+        class Named<ParameterType> implements GivenWhen<ParameterType> {
+
+            private final Predicate<ParameterType> condition;
+            private final Supplier<ParameterType> parameter;
+            private final Instrumentation.Probe probe;
+
+            Named(Predicate<ParameterType> condition, Supplier<ParameterType> parameter, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.parameter = parameter;
+                this.probe = probe;
+            }
+
+            @Override
+            public GivenWhenThenExecute<ParameterType> then(Consumer<ParameterType> consumer) {
+                return new GivenWhenThenExecute.Named<>(condition, consumer, parameter, probe);
+            }
+
+            @Override
+            public <ReturnType> GivenWhenThenReturn<ParameterType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function) {
+                return new GivenWhenThenReturn.Named<>(condition, function, parameter, probe);
+            }
+
+            @Override
+            public GivenWhenThenReturnInt<ParameterType> thenReturnInt(ToIntFunction<ParameterType> function) {
+                return new GivenWhenThenReturnInt.Named<>(condition, function, parameter, probe);
+            }
+
+            @Override
+            public GivenWhenThenReturnLong<ParameterType> thenReturnLong(ToLongFunction<ParameterType> function) {
+                return new GivenWhenThenReturnLong.Named<>(condition, function, parameter, probe);
+            }
+
+            @Override
+            public GivenWhenThenReturnDouble<ParameterType> thenReturnDouble(ToDoubleFunction<ParameterType> function) {
+                return new GivenWhenThenReturnDouble.Named<>(condition, function, parameter, probe);
+            }
+
+            @Override
+            public GivenWhenThenReturnBoolean<ParameterType> thenReturnBoolean(Predicate<ParameterType> function) {
+                return new GivenWhenThenReturnBoolean.Named<>(condition, function, parameter, probe);
+            }
+
+            @Override
+            public GivenWhen<ParameterType> cachedIn(ResultCache<ParameterType, Boolean> cache) {
+                return new Named<>(p -> cache.get(p, condition::test), parameter, probe);
+            }
+
+            @Override
+            public GivenWhen<ParameterType> named(String name) {
+                return new Impl<>(condition, parameter).named(name);
+            }
+        }
+    }
+
+    interface Rule<ParameterType> {
+        RuleThenExecute<ParameterType> then(Consumer<ParameterType> consumer);
+        <ReturnType> RuleThenReturn<ParameterType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function);
+
+        class Impl<ParameterType> implements Rule<ParameterType> {
+
+            private final Predicate<ParameterType> condition;
+
+            Impl(Predicate<ParameterType> condition) {
+                this.condition = condition;
+            }
+
+            @Override
+            public RuleThenExecute<ParameterType> then(Consumer<ParameterType> consumer) {
+                return new RuleThenExecute.Impl<>(condition, consumer);
+            }
+
+            @Override
+            public <ReturnType> RuleThenReturn<ParameterType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function) {
+                return new RuleThenReturn.Impl<>(condition, function);
+            }
+        }
+    }
+
+    //keyed select: arms are looked up by key in a hash table, so the cost does not grow with the number of arms
+    interface Select<ParameterType, KeyType> {
+        SelectWhen<ParameterType, KeyType> whenEquals(KeyType key);
+
+        class Impl<ParameterType, KeyType> implements Select<ParameterType, KeyType> {
+
+            private final Function<ParameterType, KeyType> key;
+
+            Impl(Function<ParameterType, KeyType> key) {
+                this.key = key;
+            }
+
+            @Override
+            public SelectWhen<ParameterType, KeyType> whenEquals(KeyType armKey) {
+                return new SelectWhen.Impl<>(key, armKey);
+            }
+        }
+    }
+
+    interface SelectWhen<ParameterType, KeyType> {
+        <ReturnType> SelectThenReturn<ParameterType, KeyType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function);
+
+        class Impl<ParameterType, KeyType> implements SelectWhen<ParameterType, KeyType> {
+
+            private final Function<ParameterType, KeyType> key;
+            private final KeyType armKey;
+
+            Impl(Function<ParameterType, KeyType> key, KeyType armKey) {
+                this.key = key;
+                this.armKey = armKey;
+            }
+
+            @Override
+            public <ReturnType> SelectThenReturn<ParameterType, KeyType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function) {
+                return new SelectThenReturn.Impl<ParameterType, KeyType, ReturnType>(key, new LinkedHashMap<>()).arm(armKey, function);
+            }
+        }
+    }
+
+    //conclusions -----------------------------------------------------------------------------------------------
+
+    //base
+    interface Throwing {
+        default <ExceptionType extends Throwable> void orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) throws ExceptionType {
+            orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
+        <ExceptionType extends Throwable> void orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType;
+
+        default <ExceptionType extends Throwable> void orElseThrowE(ExceptionType throwable) throws ExceptionType {
+            orElseThrow(() -> throwable);
+        }
+
+        //negative path reported as a value instead of an exception
+        Result<Void> orElseFail(Failure failure);
+
+        abstract class Impl implements Throwing {
+
+            private final BooleanSupplier condition;
+
+            Impl(BooleanSupplier condition) {
+                this.condition = condition;
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> void orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                if (condition.getAsBoolean()) happyPath();
+                else throw throwable.get();
+            }
+
+            @Override
+            public Result<Void> orElseFail(Failure failure) {
+                if (!condition.getAsBoolean()) return Result.failure(failure);
+                happyPath();
+                return Result.success();
+            }
+
+            void evaluateConditionAndConclude(Runnable negativePath){
+                if(condition.getAsBoolean()) happyPath();
+                else negativePath.run();
+            }
+
+            protected abstract void happyPath();
+
+        }
+    }
+
+    interface ReturningOrThrowing<ReturnType> {
+        default <ExceptionType extends Throwable> ReturnType orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) throws ExceptionType {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
+
+        <ExceptionType extends Throwable> ReturnType orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType;
+
+        default <ExceptionType extends Throwable> ReturnType orElseThrowE(ExceptionType throwable) throws ExceptionType {
+            return orElseThrow(() -> throwable);
+        }
+
+        //negative path reported as a value instead of an exception
+        Result<ReturnType> orElseFail(Failure failure);
+
+        abstract class Impl<ReturnType> implements ReturningOrThrowing<ReturnType> {
+
+            final BooleanSupplier condition;
+
+            Impl(BooleanSupplier condition) {
+                this.condition = condition;
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> ReturnType orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                if (condition.getAsBoolean()) return happyPath();
+                else throw throwable.get();
+            }
+
+            @Override
+            public Result<ReturnType> orElseFail(Failure failure) {
+                return condition.getAsBoolean() ? Result.success(happyPath()) : Result.failure(failure);
+            }
+
+            ReturnType evaluateConditionAndConclude(Supplier<ReturnType> negativePath) {
+                if(condition.getAsBoolean()) return happyPath();
+                else return negativePath.get();
+            }
+
+            abstract ReturnType happyPath();
+        }
+    }
+
+    //concrete
+    interface WhenThenExecute extends Throwing {
+        void orElse(Runnable action);
+
+        class Impl extends Throwing.Impl implements WhenThenExecute {
+
+            private final Runnable action;
+
+            Impl(BooleanSupplier condition, Runnable action) {
+                super(condition);
+                this.action = action;
+            }
+
+            @Override
+            public void orElse(Runnable elseAction) {
+                evaluateConditionAndConclude(elseAction);
+            }
+
+            @Override
+            protected void happyPath() {
+                action.run();
+            }
+        }
+
+        //reports every evaluation to the probe of a named chain, see When.named(..)
+        class Named implements WhenThenExecute {
+
+            private final BooleanSupplier condition;
+            private final Runnable action;
+            private final Instrumentation.Probe probe;
+
+            Named(BooleanSupplier condition, Runnable action, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.action = action;
+                this.probe = probe;
+            }
+
+            @Override
+            public void orElse(Runnable elseAction) {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                evaluation.run(evaluation.branch ? action : elseAction);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> void orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                if (evaluation.branch) evaluation.run(action);
+                else throw evaluation.fail(throwable);
+            }
+
+            @Override
+            public Result<Void> orElseFail(Failure failure) {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                if (!evaluation.branch) return evaluation.get(() -> Result.failure(failure));
+                evaluation.run(action);
+                return Result.success();
+            }
+        }
+    }
+
+    interface GivenWhenThenExecute<ParameterType> extends Throwing {
+        void orElse(Consumer<ParameterType> elseConsumer);
+
+        class Impl<ParameterType> implements GivenWhenThenExecute<ParameterType> {
+
+            private final Predicate<ParameterType> condition;
+            private final Consumer<ParameterType> consumer;
+            private final Supplier<ParameterType> parameter;
+
+            Impl(Predicate<ParameterType> condition, Consumer<ParameterType> consumer, Supplier<ParameterType> parameter) {
+                this.condition = condition;
+                this.consumer = consumer;
+                this.parameter = parameter;
+            }
+
+            @Override
+            public void orElse(Consumer<ParameterType> elseConsumer) {
+                ParameterType p = parameter.get();
+                if (condition.test(p)) consumer.accept(p);
+                else elseConsumer.accept(p);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> void orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                if (condition.test(p)) consumer.accept(p);
+                else throw throwable.get();
+            }
+
+            @Override
+            public Result<Void> orElseFail(Failure failure) {
+                ParameterType p = parameter.get();
+                if (!condition.test(p)) return Result.failure(failure);
+                consumer.accept(p);
+                return Result.success();
+            }
+        }
+
+        //given(..).when(BooleanSupplier).then(..)
+        class Supplied<ParameterType> implements GivenWhenThenExecute<ParameterType> {
+
+            private final BooleanSupplier condition;
+            private final Consumer<ParameterType> consumer;
+            private final Supplier<ParameterType> parameter;
+
+            Supplied(BooleanSupplier condition, Consumer<ParameterType> consumer, Supplier<ParameterType> parameter) {
+                this.condition = condition;
+                this.consumer = consumer;
+                this.parameter = parameter;
+            }
+
+            @Override
+            public void orElse(Consumer<ParameterType> elseConsumer) {
+                if (condition.getAsBoolean()) consumer.accept(parameter.get());
+                else elseConsumer.accept(parameter.get());
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> void orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                if (condition.getAsBoolean()) consumer.accept(parameter.get());
+                else throw throwable.get();
+            }
+
+            @Override
+            public Result<Void> orElseFail(Failure failure) {
+                if (!condition.getAsBoolean()) return Result.failure(failure);
+                consumer.accept(parameter.get());
+                return Result.success();
+            }
+        }
+
+        //reports every evaluation to the probe of a named chain, see GivenWhen.named(..)
+        class Named<ParameterType> implements GivenWhenThenExecute<ParameterType> {
+
+            private final Predicate<ParameterType> condition;
+            private final Consumer<ParameterType> consumer;
+            private final Supplier<ParameterType> parameter;
+            private final Instrumentation.Probe probe;
+
+            Named(Predicate<ParameterType> condition, Consumer<ParameterType> consumer, Supplier<ParameterType> parameter, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.consumer = consumer;
+                this.parameter = parameter;
+                this.probe = probe;
+            }
+
+            @Override
+            public void orElse(Consumer<ParameterType> elseConsumer) {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                evaluation.run(evaluation.branch ? () -> consumer.accept(p) : () -> elseConsumer.accept(p));
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> void orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                if (evaluation.branch) evaluation.run(() -> consumer.accept(p));
+                else throw evaluation.fail(throwable);
+            }
+
+            @Override
+            public Result<Void> orElseFail(Failure failure) {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                if (!evaluation.branch) return evaluation.get(() -> Result.failure(failure));
+                evaluation.run(() -> consumer.accept(p));
+                return Result.success();
+            }
+        }
+    }
+
+    interface WhenThenReturn<ReturnType> extends ReturningOrThrowing<ReturnType> {
+
+        ReturnType orElse(Supplier<ReturnType> elseSupplier);
+
+        default ReturnType orElse(ReturnType elseValue) {
+            return orElse(() -> elseValue);
+        }
+
+        //slow, side-effect-free branches start on the speculation's executor while the condition is evaluated
+        WhenThenReturn<ReturnType> speculative(Speculation speculation);
+
+        class Impl<ReturnType> extends ReturningOrThrowing.Impl<ReturnType> implements WhenThenReturn<ReturnType> {
+
+            private final Supplier<ReturnType> supplier;
+
+            Impl(BooleanSupplier condition, Supplier<ReturnType> supplier) {
+                super(condition);
+                this.supplier = supplier;
+            }
+
+            @Override
+            public ReturnType orElse(Supplier<ReturnType> elseSupplier) {
+                return evaluateConditionAndConclude(elseSupplier);
+            }
+
+            @Override
+            public WhenThenReturn<ReturnType> speculative(Speculation speculation) {
+                return new Speculative<>(condition, supplier, speculation);
+            }
+
+            ReturnType happyPath() {
+                return supplier.get();
+            }
+        }
+
+
+        //reports every evaluation to the probe of a named chain, see When.named(..)
+        class Named<ReturnType> implements WhenThenReturn<ReturnType> {
+
+            private final BooleanSupplier condition;
+            private final Supplier<ReturnType> supplier;
+            private final Instrumentation.Probe probe;
+
+            Named(BooleanSupplier condition, Supplier<ReturnType> supplier, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.supplier = supplier;
+                this.probe = probe;
+            }
+
+            @Override
+            public ReturnType orElse(Supplier<ReturnType> elseSupplier) {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                return evaluation.get(evaluation.branch ? supplier : elseSupplier);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> ReturnType orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                if (evaluation.branch) return evaluation.get(supplier);
+                else throw evaluation.fail(throwable);
+            }
+
+            @Override
+            public Result<ReturnType> orElseFail(Failure failure) {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                return evaluation.branch ? Result.success(evaluation.get(supplier)) : evaluation.get(() -> Result.failure(failure));
+            }
+
+            //branches overlapping the condition can't be timed apart, speculative chains are not reported
+            @Override
+            public WhenThenReturn<ReturnType> speculative(Speculation speculation) {
+                return new Speculative<>(condition, supplier, speculation);
+            }
+        }
+
+        class Speculative<ReturnType> implements WhenThenReturn<ReturnType> {
+
+            private final BooleanSupplier condition;
+            private final Supplier<ReturnType> supplier;
+            private final Speculation speculation;
+
+            Speculative(BooleanSupplier condition, Supplier<ReturnType> supplier, Speculation speculation) {
+                this.condition = condition;
+                this.supplier = supplier;
+                this.speculation = speculation;
+            }
+
+            @Override
+            public ReturnType orElse(Supplier<ReturnType> elseSupplier) {
+                return speculation.evaluate(condition, supplier, elseSupplier);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> ReturnType orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                Speculation.Branch<ReturnType> then = speculation.speculateThen(supplier);
+                if (holds(then)) return speculation.join(then);
+                else throw throwable.get();
+            }
+
+            @Override
+            public Result<ReturnType> orElseFail(Failure failure) {
+                Speculation.Branch<ReturnType> then = speculation.speculateThen(supplier);
+                return holds(then) ? Result.success(speculation.join(then)) : Result.failure(failure);
+            }
+
+            @Override
+            public WhenThenReturn<ReturnType> speculative(Speculation speculation) {
+                return new Speculative<>(condition, supplier, speculation);
+            }
+
+            private boolean holds(Speculation.Branch<ReturnType> then) {
+                boolean holds;
+                try {
+                    holds = condition.getAsBoolean();
+                } catch (RuntimeException | Error e) {
+                    speculation.withdraw(then);
+                    throw e;
+                }
+                if (!holds) speculation.withdraw(then);
+                return holds;
+            }
+        }
+    }
+
+    interface GivenWhenThenReturn<ParameterType, ReturnType> extends ReturningOrThrowing<ReturnType> {
+        ReturnType orElse(Function<ParameterType, ReturnType> elseFunction);
+
+        default ReturnType orElse(Supplier<ReturnType> elseSupplier) {
+            return orElse(t -> elseSupplier.get());
+        }
+
+        default ReturnType orElse(ReturnType value) {
+            return orElse(t -> value);
+        }
+
+        //whole result (condition and the chosen branch) computed once per distinct parameter while it stays in the cache
+        //the cache belongs to one call site - the else branch given there is part of what gets cached
+        GivenWhenThenReturn<ParameterType, ReturnType> cachedIn(ResultCache<ParameterType, ReturnType> cache);
+
+        //slow, side-effect-free branches start on the speculation's executor while the condition is evaluated
+        GivenWhenThenReturn<ParameterType, ReturnType> speculative(Speculation speculation);
+
+        class Impl<ParameterType, ReturnType> implements GivenWhenThenReturn<ParameterType, ReturnType> {
+
+            private final Predicate<ParameterType> condition;
+            private final Function<ParameterType, ReturnType> function;
+            private final Supplier<ParameterType> parameter;
+
+            Impl(Predicate<ParameterType> condition, Function<ParameterType, ReturnType> function, Supplier<ParameterType> parameter) {
+                this.condition = condition;
+                this.function = function;
+                this.parameter = parameter;
+            }
+
+            @Override
+            public ReturnType orElse(Function<ParameterType, ReturnType> elseFunction) {
+                ParameterType p = parameter.get();
+                return condition.test(p) ? function.apply(p) : elseFunction.apply(p);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> ReturnType orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                if (condition.test(p)) return function.apply(p);
+                else throw throwable.get();
+            }
+
+            @Override
+            public Result<ReturnType> orElseFail(Failure failure) {
+                ParameterType p = parameter.get();
+                return condition.test(p) ? Result.success(function.apply(p)) : Result.failure(failure);
+            }
+
+            @Override
+            public GivenWhenThenReturn<ParameterType, ReturnType> cachedIn(ResultCache<ParameterType, ReturnType> cache) {
+                return new Cached<>(condition, function, parameter, cache);
+            }
+
+            @Override
+            public GivenWhenThenReturn<ParameterType, ReturnType> speculative(Speculation speculation) {
+                return new Speculative<>(condition, function, parameter, speculation);
+            }
+        }
+
+        //given(..).when(BooleanSupplier).thenReturn(..)
+        class Supplied<ParameterType, ReturnType> implements GivenWhenThenReturn<ParameterType, ReturnType> {
+
+            private final BooleanSupplier condition;
+            private final Function<ParameterType, ReturnType> function;
+            private final Supplier<ParameterType> parameter;
+
+            Supplied(BooleanSupplier condition, Function<ParameterType, ReturnType> function, Supplier<ParameterType> parameter) {
+                this.condition = condition;
+                this.function = function;
+                this.parameter = parameter;
+            }
+
+            @Override
+            public ReturnType orElse(Function<ParameterType, ReturnType> elseFunction) {
+                return condition.getAsBoolean() ? function.apply(parameter.get()) : elseFunction.apply(parameter.get());
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> ReturnType orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                if (condition.getAsBoolean()) return function.apply(parameter.get());
+                else throw throwable.get();
+            }
+
+            @Override
+            public Result<ReturnType> orElseFail(Failure failure) {
+                return condition.getAsBoolean() ? Result.success(function.apply(parameter.get())) : Result.failure(failure);
+            }
+
+            @Override
+            public GivenWhenThenReturn<ParameterType, ReturnType> cachedIn(ResultCache<ParameterType, ReturnType> cache) {
+                return new Cached<>(GivenWhen.Supplied.supplied(condition), function, parameter, cache);
+            }
+
+            @Override
+            public GivenWhenThenReturn<ParameterType, ReturnType> speculative(Speculation speculation) {
+                return new Speculative<>(GivenWhen.Supplied.supplied(condition), function, parameter, speculation);
+            }
+        }
+
+        //on the orElseThrow path only the branch result is cached - combine with GivenWhen.cachedIn(..) to cache the condition too
+        class Cached<ParameterType, ReturnType> implements GivenWhenThenReturn<ParameterType, ReturnType> {
+
+            private final Predicate<ParameterType> condition;
+            private final Function<ParameterType, ReturnType> function;
+            private final Supplier<ParameterType> parameter;
+            private final ResultCache<ParameterType, ReturnType> cache;
+
+            Cached(Predicate<ParameterType> condition, Function<ParameterType, ReturnType> function, Supplier<ParameterType> parameter, ResultCache<ParameterType, ReturnType> cache) {
+                this.condition = condition;
+                this.function = function;
+                this.parameter = parameter;
+                this.cache = cache;
+            }
+
+            @Override
+            public ReturnType orElse(Function<ParameterType, ReturnType> elseFunction) {
+                return cache.get(parameter.get(), p -> condition.test(p) ? function.apply(p) : elseFunction.apply(p));
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> ReturnType orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                if (condition.test(p)) return cache.get(p, function);
+                else throw throwable.get();
+            }
+
+            @Override
+            public Result<ReturnType> orElseFail(Failure failure) {
+                ParameterType p = parameter.get();
+                return condition.test(p) ? Result.success(cache.get(p, function)) : Result.failure(failure);
+            }
+
+            @Override
+            public GivenWhenThenReturn<ParameterType, ReturnType> cachedIn(ResultCache<ParameterType, ReturnType> cache) {
+                return new Cached<>(condition, function, parameter, cache);
+            }
+
+            //the else branch is speculated, so only the then branch stays cached
+            @Override
+            public GivenWhenThenReturn<ParameterType, ReturnType> speculative(Speculation speculation) {
+                return new Speculative<>(condition, p -> cache.get(p, function), parameter, speculation);
+            }
+        }
+
+        //reports every evaluation to the probe of a named chain, see GivenWhen.named(..)
+        class Named<ParameterType, ReturnType> implements GivenWhenThenReturn<ParameterType, ReturnType> {
+
+            private final Predicate<ParameterType> condition;
+            private final Function<ParameterType, ReturnType> function;
+            private final Supplier<ParameterType> parameter;
+            private final Instrumentation.Probe probe;
+
+            Named(Predicate<ParameterType> condition, Function<ParameterType, ReturnType> function, Supplier<ParameterType> parameter, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.function = function;
+                this.parameter = parameter;
+                this.probe = probe;
+            }
+
+            @Override
+            public ReturnType orElse(Function<ParameterType, ReturnType> elseFunction) {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                return evaluation.get(evaluation.branch ? function : elseFunction, p);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> ReturnType orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                if (evaluation.branch) return evaluation.get(function, p);
+                else throw evaluation.fail(throwable);
+            }
+
+            @Override
+            public Result<ReturnType> orElseFail(Failure failure) {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                return evaluation.branch ? Result.success(evaluation.get(function, p)) : evaluation.get(() -> Result.failure(failure));
+            }
+
+            //cache hits skip the evaluation altogether, so the cached chain is no longer reported
+            @Override
+            public GivenWhenThenReturn<ParameterType, ReturnType> cachedIn(ResultCache<ParameterType, ReturnType> cache) {
+                return new Cached<>(condition, function, parameter, cache);
+            }
+
+            //branches overlapping the condition can't be timed apart, speculative chains are not reported
+            @Override
+            public GivenWhenThenReturn<ParameterType, ReturnType> speculative(Speculation speculation) {
+                return new Speculative<>(condition, function, parameter, speculation);
+            }
+        }
+
+        class Speculative<ParameterType, ReturnType> implements GivenWhenThenReturn<ParameterType, ReturnType> {
+
+            private final Predicate<ParameterType> condition;
+            private final Function<ParameterType, ReturnType> function;
+            private final Supplier<ParameterType> parameter;
+            private final Speculation speculation;
+
+            Speculative(Predicate<ParameterType> condition, Function<ParameterType, ReturnType> function, Supplier<ParameterType> parameter, Speculation speculation) {
+                this.condition = condition;
+                this.function = function;
+                this.parameter = parameter;
+                this.speculation = speculation;
+            }
+
+            @Override
+            public ReturnType orElse(Function<ParameterType, ReturnType> elseFunction) {
+                ParameterType p = parameter.get();
+                return speculation.evaluate(() -> condition.test(p), () -> function.apply(p), () -> elseFunction.apply(p));
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> ReturnType orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                Speculation.Branch<ReturnType> then = speculation.speculateThen(() -> function.apply(p));
+                if (holds(p, then)) return speculation.join(then);
+                else throw throwable.get();
+            }
+
+            @Override
+            public Result<ReturnType> orElseFail(Failure failure) {
+                ParameterType p = parameter.get();
+                Speculation.Branch<ReturnType> then = speculation.speculateThen(() -> function.apply(p));
+                return holds(p, then) ? Result.success(speculation.join(then)) : Result.failure(failure);
+            }
+
+            //only the then branch stays cached, the else branch is speculated
+            @Override
+            public GivenWhenThenReturn<ParameterType, ReturnType> cachedIn(ResultCache<ParameterType, ReturnType> cache) {
+                return new Speculative<>(condition, p -> cache.get(p, function), parameter, speculation);
+            }
+
+            @Override
+            public GivenWhenThenReturn<ParameterType, ReturnType> speculative(Speculation speculation) {
+                return new Speculative<>(condition, function, parameter, speculation);
+            }
+
+            private boolean holds(ParameterType p, Speculation.Branch<ReturnType> then) {
+                boolean holds;
+                try {
+                    holds = condition.test(p);
+                } catch (RuntimeException | Error e) {
+                    speculation.withdraw(then);
+                    throw e;
+                }
+                if (!holds) speculation.withdraw(then);
+                return holds;
+            }
+        }
+    }
+
+    //primitive specializations
+
+    interface WhenThenReturnInt {
+
+        int orElse(IntSupplier elseSupplier);
+
+        default int orElse(int elseValue) {
+            return orElse(() -> elseValue);
+        }
+
+        default <ExceptionType extends Throwable> int orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) throws ExceptionType {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
+
+        <ExceptionType extends Throwable> int orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType;
+
+        default <ExceptionType extends Throwable> int orElseThrowE(ExceptionType throwable) throws ExceptionType {
+            return orElseThrow(() -> throwable);
+        }
+
+        class Impl implements WhenThenReturnInt {
+
+            private final BooleanSupplier condition;
+            private final IntSupplier supplier;
+
+            Impl(BooleanSupplier condition, IntSupplier supplier) {
+                this.condition = condition;
+                this.supplier = supplier;
+            }
+
+            @Override
+            public int orElse(IntSupplier elseSupplier) {
+                return condition.getAsBoolean() ? supplier.getAsInt() : elseSupplier.getAsInt();
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> int orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                if (condition.getAsBoolean()) return supplier.getAsInt();
+                else throw throwable.get();
+            }
+        }
+
+        //reports every evaluation to the probe of a named chain, see When.named(..)
+        class Named implements WhenThenReturnInt {
+
+            private final BooleanSupplier condition;
+            private final IntSupplier supplier;
+            private final Instrumentation.Probe probe;
+
+            Named(BooleanSupplier condition, IntSupplier supplier, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.supplier = supplier;
+                this.probe = probe;
+            }
+
+            @Override
+            public int orElse(IntSupplier elseSupplier) {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                return evaluation.branch ? evaluation.getInt(supplier) : evaluation.getInt(elseSupplier);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> int orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                if (evaluation.branch) return evaluation.getInt(supplier);
+                else throw evaluation.fail(throwable);
+            }
+        }
+    }
+
+    interface WhenThenReturnLong {
+
+        long orElse(LongSupplier elseSupplier);
+
+        default long orElse(long elseValue) {
+            return orElse(() -> elseValue);
+        }
+
+        default <ExceptionType extends Throwable> long orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) throws ExceptionType {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
+
+        <ExceptionType extends Throwable> long orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType;
+
+        default <ExceptionType extends Throwable> long orElseThrowE(ExceptionType throwable) throws ExceptionType {
+            return orElseThrow(() -> throwable);
+        }
+
+        class Impl implements WhenThenReturnLong {
+
+            private final BooleanSupplier condition;
+            private final LongSupplier supplier;
+
+            Impl(BooleanSupplier condition, LongSupplier supplier) {
+                this.condition = condition;
+                this.supplier = supplier;
+            }
+
+            @Override
+            public long orElse(LongSupplier elseSupplier) {
+                return condition.getAsBoolean() ? supplier.getAsLong() : elseSupplier.getAsLong();
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> long orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                if (condition.getAsBoolean()) return supplier.getAsLong();
+                else throw throwable.get();
+            }
+        }
+
+        //reports every evaluation to the probe of a named chain, see When.named(..)
+        class Named implements WhenThenReturnLong {
+
+            private final BooleanSupplier condition;
+            private final LongSupplier supplier;
+            private final Instrumentation.Probe probe;
+
+            Named(BooleanSupplier condition, LongSupplier supplier, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.supplier = supplier;
+                this.probe = probe;
+            }
+
+            @Override
+            public long orElse(LongSupplier elseSupplier) {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                return evaluation.branch ? evaluation.getLong(supplier) : evaluation.getLong(elseSupplier);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> long orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                if (evaluation.branch) return evaluation.getLong(supplier);
+                else throw evaluation.fail(throwable);
+            }
+        }
+    }
+
+    interface WhenThenReturnDouble {
+
+        double orElse(DoubleSupplier elseSupplier);
+
+        default double orElse(double elseValue) {
+            return orElse(() -> elseValue);
+        }
+
+        default <ExceptionType extends Throwable> double orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) throws ExceptionType {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
+
+        <ExceptionType extends Throwable> double orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType;
+
+        default <ExceptionType extends Throwable> double orElseThrowE(ExceptionType throwable) throws ExceptionType {
+            return orElseThrow(() -> throwable);
+        }
+
+        class Impl implements WhenThenReturnDouble {
+
+            private final BooleanSupplier condition;
+            private final DoubleSupplier supplier;
+
+            Impl(BooleanSupplier condition, DoubleSupplier supplier) {
+                this.condition = condition;
+                this.supplier = supplier;
+            }
+
+            @Override
+            public double orElse(DoubleSupplier elseSupplier) {
+                return condition.getAsBoolean() ? supplier.getAsDouble() : elseSupplier.getAsDouble();
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> double orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                if (condition.getAsBoolean()) return supplier.getAsDouble();
+                else throw throwable.get();
+            }
+        }
+
+        //reports every evaluation to the probe of a named chain, see When.named(..)
+        class Named implements WhenThenReturnDouble {
+
+            private final BooleanSupplier condition;
+            private final DoubleSupplier supplier;
+            private final Instrumentation.Probe probe;
+
+            Named(BooleanSupplier condition, DoubleSupplier supplier, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.supplier = supplier;
+                this.probe = probe;
+            }
+
+            @Override
+            public double orElse(DoubleSupplier elseSupplier) {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                return evaluation.branch ? evaluation.getDouble(supplier) : evaluation.getDouble(elseSupplier);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> double orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                if (evaluation.branch) return evaluation.getDouble(supplier);
+                else throw evaluation.fail(throwable);
+            }
+        }
+    }
+
+    interface WhenThenReturnBoolean {
+
+        boolean orElse(BooleanSupplier elseSupplier);
+
+        default boolean orElse(boolean elseValue) {
+            return orElse(() -> elseValue);
+        }
+
+        default <ExceptionType extends Throwable> boolean orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) throws ExceptionType {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
+
+        <ExceptionType extends Throwable> boolean orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType;
+
+        default <ExceptionType extends Throwable> boolean orElseThrowE(ExceptionType throwable) throws ExceptionType {
+            return orElseThrow(() -> throwable);
+        }
+
+        class Impl implements WhenThenReturnBoolean {
+
+            private final BooleanSupplier condition;
+            private final BooleanSupplier supplier;
+
+            Impl(BooleanSupplier condition, BooleanSupplier supplier) {
+                this.condition = condition;
+                this.supplier = supplier;
+            }
+
+            @Override
+            public boolean orElse(BooleanSupplier elseSupplier) {
+                return condition.getAsBoolean() ? supplier.getAsBoolean() : elseSupplier.getAsBoolean();
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> boolean orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                if (condition.getAsBoolean()) return supplier.getAsBoolean();
+                else throw throwable.get();
+            }
+        }
+
+        //reports every evaluation to the probe of a named chain, see When.named(..)
+        class Named implements WhenThenReturnBoolean {
+
+            private final BooleanSupplier condition;
+            private final BooleanSupplier supplier;
+            private final Instrumentation.Probe probe;
+
+            Named(BooleanSupplier condition, BooleanSupplier supplier, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.supplier = supplier;
+                this.probe = probe;
+            }
+
+            @Override
+            public boolean orElse(BooleanSupplier elseSupplier) {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                return evaluation.branch ? evaluation.getBoolean(supplier) : evaluation.getBoolean(elseSupplier);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> boolean orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                Evaluation evaluation = Evaluation.of(probe, condition);
+                if (evaluation.branch) return evaluation.getBoolean(supplier);
+                else throw evaluation.fail(throwable);
+            }
+        }
+    }
+
+    interface GivenWhenThenReturnInt<ParameterType> {
+
+        int orElse(ToIntFunction<ParameterType> elseFunction);
+
+        default int orElse(IntSupplier elseSupplier) {
+            return orElse(t -> elseSupplier.getAsInt());
+        }
+
+        default int orElse(int value) {
+            return orElse(t -> value);
+        }
+
+        default <ExceptionType extends Throwable> int orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) throws ExceptionType {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
+
+        <ExceptionType extends Throwable> int orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType;
+
+        default <ExceptionType extends Throwable> int orElseThrowE(ExceptionType throwable) throws ExceptionType {
+            return orElseThrow(() -> throwable);
+        }
+
+        class Impl<ParameterType> implements GivenWhenThenReturnInt<ParameterType> {
+
+            private final Predicate<ParameterType> condition;
+            private final ToIntFunction<ParameterType> function;
+            private final Supplier<ParameterType> parameter;
+
+            Impl(Predicate<ParameterType> condition, ToIntFunction<ParameterType> function, Supplier<ParameterType> parameter) {
+                this.condition = condition;
+                this.function = function;
+                this.parameter = parameter;
+            }
+
+            @Override
+            public int orElse(ToIntFunction<ParameterType> elseFunction) {
+                ParameterType p = parameter.get();
+                return condition.test(p) ? function.applyAsInt(p) : elseFunction.applyAsInt(p);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> int orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                if (condition.test(p)) return function.applyAsInt(p);
+                else throw throwable.get();
+            }
+        }
+
+        //reports every evaluation to the probe of a named chain, see GivenWhen.named(..)
+        class Named<ParameterType> implements GivenWhenThenReturnInt<ParameterType> {
+
+            private final Predicate<ParameterType> condition;
+            private final ToIntFunction<ParameterType> function;
+            private final Supplier<ParameterType> parameter;
+            private final Instrumentation.Probe probe;
+
+            Named(Predicate<ParameterType> condition, ToIntFunction<ParameterType> function, Supplier<ParameterType> parameter, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.function = function;
+                this.parameter = parameter;
+                this.probe = probe;
+            }
+
+            @Override
+            public int orElse(ToIntFunction<ParameterType> elseFunction) {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                return evaluation.branch ? evaluation.getInt(function, p) : evaluation.getInt(elseFunction, p);
+            }
 
-    static <ParameterType> Given<ParameterType> given(ParameterType parameter) {
-        return given(() -> parameter);
+            @Override
+            public <ExceptionType extends Throwable> int orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                if (evaluation.branch) return evaluation.getInt(function, p);
+                else throw evaluation.fail(throwable);
+            }
+        }
     }
 
-    static <ParameterType> Given<ParameterType> given(Supplier<ParameterType> parameter) {
-        return new Given.Impl<>(parameter);
-    }
+    interface GivenWhenThenReturnLong<ParameterType> {
 
-    //middle tier -----------------------------------------------------------------------------------------------
+        long orElse(ToLongFunction<ParameterType> elseFunction);
 
-    interface When {
-        WhenThenExecute then(Runnable action);
+        default long orElse(LongSupplier elseSupplier) {
+            return orElse(t -> elseSupplier.getAsLong());
+        }
 
-        <ReturnType> WhenThenReturn<ReturnType> thenReturn(Supplier<ReturnType> supplier);
-        default <ReturnType> WhenThenReturn<ReturnType> thenReturn(ReturnType value) {
-            return thenReturn(() -> value);
+        default long orElse(long value) {
+            return orElse(t -> value);
         }
 
-        <ExceptionType extends Throwable> void thenThrow(Function<String, ExceptionType> exceptionFactory, String exceptionMessage) throws ExceptionType;
+        default <ExceptionType extends Throwable> long orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) throws ExceptionType {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
 
-        class Impl implements When {
+        <ExceptionType extends Throwable> long orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType;
 
-            private final BooleanSupplier condition;
+        default <ExceptionType extends Throwable> long orElseThrowE(ExceptionType throwable) throws ExceptionType {
+            return orElseThrow(() -> throwable);
+        }
 
-            Impl(BooleanSupplier condition) {
+        class Impl<ParameterType> implements GivenWhenThenReturnLong<ParameterType> {
+
+            private final Predicate<ParameterType> condition;
+            private final ToLongFunction<ParameterType> function;
+            private final Supplier<ParameterType> parameter;
+
+            Impl(Predicate<ParameterType> condition, ToLongFunction<ParameterType> function, Supplier<ParameterType> parameter) {
                 this.condition = condition;
+                this.function = function;
+                this.parameter = parameter;
             }
 
             @Override
-            public WhenThenExecute then(Runnable action) {
-                return new WhenThenExecute.Impl(condition, action);
+            public long orElse(ToLongFunction<ParameterType> elseFunction) {
+                ParameterType p = parameter.get();
+                return condition.test(p) ? function.applyAsLong(p) : elseFunction.applyAsLong(p);
             }
 
             @Override
-            public <ReturnType> WhenThenReturn<ReturnType> thenReturn(Supplier<ReturnType> supplier) {
-                return new WhenThenReturn.Impl<>(condition, supplier);
+            public <ExceptionType extends Throwable> long orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                if (condition.test(p)) return function.applyAsLong(p);
+                else throw throwable.get();
+            }
+        }
+
+        //reports every evaluation to the probe of a named chain, see GivenWhen.named(..)
+        class Named<ParameterType> implements GivenWhenThenReturnLong<ParameterType> {
+
+            private final Predicate<ParameterType> condition;
+            private final ToLongFunction<ParameterType> function;
+            private final Supplier<ParameterType> parameter;
+            private final Instrumentation.Probe probe;
+
+            Named(Predicate<ParameterType> condition, ToLongFunction<ParameterType> function, Supplier<ParameterType> parameter, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.function = function;
+                this.parameter = parameter;
+                this.probe = probe;
             }
 
             @Override
-            public <ExceptionType extends Throwable> void thenThrow(Function<String, ExceptionType> exceptionFactory, String exceptionMessage) throws ExceptionType {
-                if(condition.getAsBoolean()) throw exceptionFactory.apply(exceptionMessage);
+            public long orElse(ToLongFunction<ParameterType> elseFunction) {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                return evaluation.branch ? evaluation.getLong(function, p) : evaluation.getLong(elseFunction, p);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> long orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                if (evaluation.branch) return evaluation.getLong(function, p);
+                else throw evaluation.fail(throwable);
             }
         }
     }
 
-    interface Given<ParameterType> {
-        GivenWhen<ParameterType> when(BooleanSupplier condition);
+    interface GivenWhenThenReturnDouble<ParameterType> {
 
-        default GivenWhen<ParameterType> when(boolean condition) {
-            return when(() -> condition);
+        double orElse(ToDoubleFunction<ParameterType> elseFunction);
+
+        default double orElse(DoubleSupplier elseSupplier) {
+            return orElse(t -> elseSupplier.getAsDouble());
         }
 
-        class Impl<ParameterType> implements Given<ParameterType> {
+        default double orElse(double value) {
+            return orElse(t -> value);
+        }
+
+        default <ExceptionType extends Throwable> double orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) throws ExceptionType {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
+
+        <ExceptionType extends Throwable> double orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType;
+
+        default <ExceptionType extends Throwable> double orElseThrowE(ExceptionType throwable) throws ExceptionType {
+            return orElseThrow(() -> throwable);
+        }
 
+        class Impl<ParameterType> implements GivenWhenThenReturnDouble<ParameterType> {
+
+            private final Predicate<ParameterType> condition;
+            private final ToDoubleFunction<ParameterType> function;
             private final Supplier<ParameterType> parameter;
 
-            Impl(Supplier<ParameterType> parameter) {
+            Impl(Predicate<ParameterType> condition, ToDoubleFunction<ParameterType> function, Supplier<ParameterType> parameter) {
+                this.condition = condition;
+                this.function = function;
                 this.parameter = parameter;
             }
 
             @Override
-            public GivenWhen<ParameterType> when(BooleanSupplier condition) {
-                return new GivenWhen.Impl<>(condition, parameter);
+            public double orElse(ToDoubleFunction<ParameterType> elseFunction) {
+                ParameterType p = parameter.get();
+                return condition.test(p) ? function.applyAsDouble(p) : elseFunction.applyAsDouble(p);
             }
-        }
-    }
 
-    interface GivenWhen<ParameterType> {
-        GivenWhenThenExecute<ParameterType> then(Consumer<ParameterType> consumer);
-        <ReturnType> GivenWhenThenReturn<ParameterType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function);
-        default <ReturnType> GivenWhenThenReturn<ParameterType, ReturnType> thenReturn(Supplier<ReturnType> supplier) {
-            return thenReturn(t -> supplier.get());
+            @Override
+            public <ExceptionType extends Throwable> double orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                if (condition.test(p)) return function.applyAsDouble(p);
+                else throw throwable.get();
+            }
         }
 
-        class Impl<ParameterType> implements GivenWhen<ParameterType> {
+        //reports every evaluation to the probe of a named chain, see GivenWhen.named(..)
+        class Named<ParameterType> implements GivenWhenThenReturnDouble<ParameterType> {
 
-            private final BooleanSupplier condition;
+            private final Predicate<ParameterType> condition;
+            private final ToDoubleFunction<ParameterType> function;
             private final Supplier<ParameterType> parameter;
+            private final Instrumentation.Probe probe;
 
-            Impl(BooleanSupplier condition, Supplier<ParameterType> parameter) {
+            Named(Predicate<ParameterType> condition, ToDoubleFunction<ParameterType> function, Supplier<ParameterType> parameter, Instrumentation.Probe probe) {
                 this.condition = condition;
+                this.function = function;
                 this.parameter = parameter;
+                this.probe = probe;
             }
 
             @Override
-            public GivenWhenThenExecute<ParameterType> then(Consumer<ParameterType> consumer) {
-                return new GivenWhenThenExecute.Impl<>(condition, consumer, parameter);
+            public double orElse(ToDoubleFunction<ParameterType> elseFunction) {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                return evaluation.branch ? evaluation.getDouble(function, p) : evaluation.getDouble(elseFunction, p);
             }
 
             @Override
-            public <ReturnType> GivenWhenThenReturn<ParameterType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function) {
-                return new GivenWhenThenReturn.Impl<>(condition, function, parameter);
+            public <ExceptionType extends Throwable> double orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                if (evaluation.branch) return evaluation.getDouble(function, p);
+                else throw evaluation.fail(throwable);
             }
         }
     }
 
-    //conclusions -----------------------------------------------------------------------------------------------
+    interface GivenWhenThenReturnBoolean<ParameterType> {
 
-    //base
-    interface Throwing {
-        default <ExceptionType extends Throwable> void orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) throws ExceptionType {
-            orElseThrow(() -> throwable.apply(exceptionMessage));
+        boolean orElse(Predicate<ParameterType> elseFunction);
+
+        default boolean orElse(BooleanSupplier elseSupplier) {
+            return orElse(t -> elseSupplier.getAsBoolean());
         }
-        <ExceptionType extends Throwable> void orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType;
 
-        default <ExceptionType extends Throwable> void orElseThrowE(ExceptionType throwable) throws ExceptionType {
-            orElseThrow(() -> throwable);
+        default boolean orElse(boolean value) {
+            return orElse(t -> value);
         }
 
-        abstract class Impl implements Throwing {
+        default <ExceptionType extends Throwable> boolean orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) throws ExceptionType {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
 
-            private final BooleanSupplier condition;
+        <ExceptionType extends Throwable> boolean orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType;
 
-            Impl(BooleanSupplier condition) {
+        default <ExceptionType extends Throwable> boolean orElseThrowE(ExceptionType throwable) throws ExceptionType {
+            return orElseThrow(() -> throwable);
+        }
+
+        class Impl<ParameterType> implements GivenWhenThenReturnBoolean<ParameterType> {
+
+            private final Predicate<ParameterType> condition;
+            private final Predicate<ParameterType> function;
+            private final Supplier<ParameterType> parameter;
+
+            Impl(Predicate<ParameterType> condition, Predicate<ParameterType> function, Supplier<ParameterType> parameter) {
                 this.condition = condition;
+                this.function = function;
+                this.parameter = parameter;
             }
 
             @Override
-            public <ExceptionType extends Throwable> void orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
-                if (condition.getAsBoolean()) happyPath();
+            public boolean orElse(Predicate<ParameterType> elseFunction) {
+                ParameterType p = parameter.get();
+                return condition.test(p) ? function.test(p) : elseFunction.test(p);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> boolean orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                if (condition.test(p)) return function.test(p);
                 else throw throwable.get();
             }
+        }
 
-            void evaluateConditionAndConclude(Runnable negativePath){
-                if(condition.getAsBoolean()) happyPath();
-                else negativePath.run();
+        //reports every evaluation to the probe of a named chain, see GivenWhen.named(..)
+        class Named<ParameterType> implements GivenWhenThenReturnBoolean<ParameterType> {
+
+            private final Predicate<ParameterType> condition;
+            private final Predicate<ParameterType> function;
+            private final Supplier<ParameterType> parameter;
+            private final Instrumentation.Probe probe;
+
+            Named(Predicate<ParameterType> condition, Predicate<ParameterType> function, Supplier<ParameterType> parameter, Instrumentation.Probe probe) {
+                this.condition = condition;
+                this.function = function;
+                this.parameter = parameter;
+                this.probe = probe;
             }
 
-            protected abstract void happyPath();
+            @Override
+            public boolean orElse(Predicate<ParameterType> elseFunction) {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                return evaluation.branch ? evaluation.getBoolean(function, p) : evaluation.getBoolean(elseFunction, p);
+            }
 
+            @Override
+            public <ExceptionType extends Throwable> boolean orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
+                ParameterType p = parameter.get();
+                Evaluation evaluation = Evaluation.of(probe, condition, p);
+                if (evaluation.branch) return evaluation.getBoolean(function, p);
+                else throw evaluation.fail(throwable);
+            }
         }
     }
 
-    interface ReturningOrThrowing<ReturnType> {
-        default <ExceptionType extends Throwable> ReturnType orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) throws ExceptionType {
+    //rule conclusions return immutable, stateless objects - keep them in static finals and apply them many times
+    //orWhen(..) adds else-if arms; they are flattened into arrays and tested in declaration order
+    interface RuleThenExecute<ParameterType> {
+        RuleOrWhenThenExecute<ParameterType> orWhen(Predicate<ParameterType> condition);
+
+        Consumer<ParameterType> orElse(Consumer<ParameterType> elseConsumer);
+
+        default Consumer<ParameterType> orElseThrow(Function<String, ? extends RuntimeException> throwable, String exceptionMessage) {
             return orElseThrow(() -> throwable.apply(exceptionMessage));
         }
 
-        <ExceptionType extends Throwable> ReturnType orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType;
+        Consumer<ParameterType> orElseThrow(Supplier<? extends RuntimeException> throwable);
 
-        default <ExceptionType extends Throwable> ReturnType orElseThrowE(ExceptionType throwable) throws ExceptionType {
-            return orElseThrow(() -> throwable);
-        }
+        class Impl<ParameterType> implements RuleThenExecute<ParameterType> {
 
-        abstract class Impl<ReturnType> implements ReturningOrThrowing<ReturnType> {
+            private final Predicate<ParameterType>[] conditions;
+            private final Consumer<ParameterType>[] consumers;
 
-            private final BooleanSupplier condition;
+            @SuppressWarnings("unchecked")
+            Impl(Predicate<ParameterType> condition, Consumer<ParameterType> consumer) {
+                this((Predicate<ParameterType>[]) new Predicate<?>[]{condition}, (Consumer<ParameterType>[]) new Consumer<?>[]{consumer});
+            }
 
-            Impl(BooleanSupplier condition) {
-                this.condition = condition;
+            private Impl(Predicate<ParameterType>[] conditions, Consumer<ParameterType>[] consumers) {
+                this.conditions = conditions;
+                this.consumers = consumers;
             }
 
             @Override
-            public <ExceptionType extends Throwable> ReturnType orElseThrow(Supplier<ExceptionType> throwable) throws ExceptionType {
-                if (condition.getAsBoolean()) return happyPath();
-                else throw throwable.get();
+            public RuleOrWhenThenExecute<ParameterType> orWhen(Predicate<ParameterType> condition) {
+                return consumer -> {
+                    int arms = conditions.length;
+                    Predicate<ParameterType>[] moreConditions = Arrays.copyOf(conditions, arms + 1);
+                    Consumer<ParameterType>[] moreConsumers = Arrays.copyOf(consumers, arms + 1);
+                    moreConditions[arms] = condition;
+                    moreConsumers[arms] = consumer;
+                    return new Impl<>(moreConditions, moreConsumers);
+                };
             }
 
-            ReturnType evaluateConditionAndConclude(Supplier<ReturnType> negativePath) {
-                if(condition.getAsBoolean()) return happyPath();
-                else return negativePath.get();
+            @Override
+            public Consumer<ParameterType> orElse(Consumer<ParameterType> elseConsumer) {
+                if (conditions.length == 1) return new Compiled<>(conditions[0], consumers[0], elseConsumer);
+                return new Ladder<>(conditions, consumers, elseConsumer);
             }
 
-            abstract ReturnType happyPath();
+            @Override
+            public Consumer<ParameterType> orElseThrow(Supplier<? extends RuntimeException> throwable) {
+                return orElse(t -> {
+                    throw throwable.get();
+                });
+            }
         }
-    }
-
-    //concrete
-    interface WhenThenExecute extends Throwing {
-        void orElse(Runnable action);
 
-        class Impl extends Throwing.Impl implements WhenThenExecute {
+        final class Compiled<ParameterType> implements Consumer<ParameterType> {
 
-            private final Runnable action;
+            final Predicate<ParameterType> condition;
+            final Consumer<ParameterType> consumer;
+            final Consumer<ParameterType> elseConsumer;
 
-            Impl(BooleanSupplier condition, Runnable action) {
-                super(condition);
-                this.action = action;
+            Compiled(Predicate<ParameterType> condition, Consumer<ParameterType> consumer, Consumer<ParameterType> elseConsumer) {
+                this.condition = condition;
+                this.consumer = consumer;
+                this.elseConsumer = elseConsumer;
             }
 
             @Override
-            public void orElse(Runnable elseAction) {
-                evaluateConditionAndConclude(elseAction);
+            public void accept(ParameterType parameter) {
+                if (condition.test(parameter)) consumer.accept(parameter);
+                else elseConsumer.accept(parameter);
+            }
+        }
+
+        final class Ladder<ParameterType> implements Consumer<ParameterType> {
+
+            final Predicate<ParameterType>[] conditions;
+            final Consumer<ParameterType>[] consumers;
+            final Consumer<ParameterType> elseConsumer;
+
+            Ladder(Predicate<ParameterType>[] conditions, Consumer<ParameterType>[] consumers, Consumer<ParameterType> elseConsumer) {
+                this.conditions = conditions;
+                this.consumers = consumers;
+                this.elseConsumer = elseConsumer;
             }
 
             @Override
-            protected void happyPath() {
-                action.run();
+            public void accept(ParameterType parameter) {
+                for (int i = 0; i < conditions.length; i++) {
+                    if (conditions[i].test(parameter)) {
+                        consumers[i].accept(parameter);
+                        return;
+                    }
+                }
+                elseConsumer.accept(parameter);
             }
         }
     }
 
-    interface GivenWhenThenExecute<ParameterType> extends Throwing {
-        void orElse(Consumer<ParameterType> elseConsumer);
+    interface RuleOrWhenThenExecute<ParameterType> {
+        RuleThenExecute<ParameterType> then(Consumer<ParameterType> consumer);
+    }
 
-        class Impl<ParameterType> extends Throwing.Impl implements GivenWhenThenExecute<ParameterType> {
+    interface RuleThenReturn<ParameterType, ReturnType> {
+        RuleOrWhenThenReturn<ParameterType, ReturnType> orWhen(Predicate<ParameterType> condition);
 
-            private final Consumer<ParameterType> consumer;
-            private final Supplier<ParameterType> parameter;
+        Function<ParameterType, ReturnType> orElse(Function<ParameterType, ReturnType> elseFunction);
 
-            Impl(BooleanSupplier condition, Consumer<ParameterType> consumer, Supplier<ParameterType> parameter) {
-                super(condition);
-                this.consumer = consumer;
-                this.parameter = parameter;
+        default Function<ParameterType, ReturnType> orElse(ReturnType value) {
+            return orElse(t -> value);
+        }
+
+        default Function<ParameterType, ReturnType> orElseThrow(Function<String, ? extends RuntimeException> throwable, String exceptionMessage) {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
+
+        Function<ParameterType, ReturnType> orElseThrow(Supplier<? extends RuntimeException> throwable);
+
+        class Impl<ParameterType, ReturnType> implements RuleThenReturn<ParameterType, ReturnType> {
+
+            private final Predicate<ParameterType>[] conditions;
+            private final Function<ParameterType, ReturnType>[] functions;
+
+            @SuppressWarnings("unchecked")
+            Impl(Predicate<ParameterType> condition, Function<ParameterType, ReturnType> function) {
+                this((Predicate<ParameterType>[]) new Predicate<?>[]{condition}, (Function<ParameterType, ReturnType>[]) new Function<?, ?>[]{function});
+            }
+
+            private Impl(Predicate<ParameterType>[] conditions, Function<ParameterType, ReturnType>[] functions) {
+                this.conditions = conditions;
+                this.functions = functions;
             }
 
             @Override
-            public void orElse(Consumer<ParameterType> elseConsumer) {
-                evaluateConditionAndConclude(() -> elseConsumer.accept(parameter.get()));
+            public RuleOrWhenThenReturn<ParameterType, ReturnType> orWhen(Predicate<ParameterType> condition) {
+                return function -> {
+                    int arms = conditions.length;
+                    Predicate<ParameterType>[] moreConditions = Arrays.copyOf(conditions, arms + 1);
+                    Function<ParameterType, ReturnType>[] moreFunctions = Arrays.copyOf(functions, arms + 1);
+                    moreConditions[arms] = condition;
+                    moreFunctions[arms] = function;
+                    return new Impl<>(moreConditions, moreFunctions);
+                };
             }
 
             @Override
-            protected void happyPath() {
-                consumer.accept(parameter.get());
+            public Function<ParameterType, ReturnType> orElse(Function<ParameterType, ReturnType> elseFunction) {
+                if (conditions.length == 1) return new Compiled<>(conditions[0], functions[0], elseFunction);
+                return new Ladder<>(conditions, functions, elseFunction);
+            }
+
+            @Override
+            public Function<ParameterType, ReturnType> orElseThrow(Supplier<? extends RuntimeException> throwable) {
+                return orElse((Function<ParameterType, ReturnType>) t -> {
+                    throw throwable.get();
+                });
             }
         }
-    }
 
-    interface WhenThenReturn<ReturnType> extends ReturningOrThrowing<ReturnType> {
+        final class Compiled<ParameterType, ReturnType> implements Function<ParameterType, ReturnType> {
 
-        ReturnType orElse(Supplier<ReturnType> elseSupplier);
+            final Predicate<ParameterType> condition;
+            final Function<ParameterType, ReturnType> function;
+            final Function<ParameterType, ReturnType> elseFunction;
 
-        default ReturnType orElse(ReturnType elseValue) {
-            return orElse(() -> elseValue);
+            Compiled(Predicate<ParameterType> condition, Function<ParameterType, ReturnType> function, Function<ParameterType, ReturnType> elseFunction) {
+                this.condition = condition;
+                this.function = function;
+                this.elseFunction = elseFunction;
+            }
+
+            @Override
+            public ReturnType apply(ParameterType parameter) {
+                return condition.test(parameter) ? function.apply(parameter) : elseFunction.apply(parameter);
+            }
         }
 
-        class Impl<ReturnType> extends ReturningOrThrowing.Impl<ReturnType> implements WhenThenReturn<ReturnType> {
+        final class Ladder<ParameterType, ReturnType> implements Function<ParameterType, ReturnType> {
 
-            private final Supplier<ReturnType> supplier;
+            final Predicate<ParameterType>[] conditions;
+            final Function<ParameterType, ReturnType>[] functions;
+            final Function<ParameterType, ReturnType> elseFunction;
 
-            Impl(BooleanSupplier condition, Supplier<ReturnType> supplier) {
-                super(condition);
-                this.supplier = supplier;
+            Ladder(Predicate<ParameterType>[] conditions, Function<ParameterType, ReturnType>[] functions, Function<ParameterType, ReturnType> elseFunction) {
+                this.conditions = conditions;
+                this.functions = functions;
+                this.elseFunction = elseFunction;
             }
 
             @Override
-            public ReturnType orElse(Supplier<ReturnType> elseSupplier) {
-                return evaluateConditionAndConclude(elseSupplier);
-            }
-
-            ReturnType happyPath() {
-                return supplier.get();
+            public ReturnType apply(ParameterType parameter) {
+                for (int i = 0; i < conditions.length; i++) {
+                    if (conditions[i].test(parameter)) return functions[i].apply(parameter);
+                }
+                return elseFunction.apply(parameter);
             }
         }
+    }
 
+    interface RuleOrWhenThenReturn<ParameterType, ReturnType> {
+        RuleThenReturn<ParameterType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function);
     }
 
-    interface GivenWhenThenReturn<ParameterType, ReturnType> extends ReturningOrThrowing<ReturnType> {
-        ReturnType orElse(Function<ParameterType, ReturnType> elseFunction);
+    interface SelectThenReturn<ParameterType, KeyType, ReturnType> {
+        SelectOrWhenThenReturn<ParameterType, KeyType, ReturnType> orWhenEquals(KeyType key);
 
-        default ReturnType orElse(Supplier<ReturnType> elseSupplier) {
-            return orElse(t -> elseSupplier.get());
-        }
+        Function<ParameterType, ReturnType> orElse(Function<ParameterType, ReturnType> elseFunction);
 
-        default ReturnType orElse(ReturnType value) {
+        default Function<ParameterType, ReturnType> orElse(ReturnType value) {
             return orElse(t -> value);
         }
 
-        class Impl<ParameterType, ReturnType> extends ReturningOrThrowing.Impl<ReturnType> implements GivenWhenThenReturn<ParameterType, ReturnType> {
+        default Function<ParameterType, ReturnType> orElseThrow(Function<String, ? extends RuntimeException> throwable, String exceptionMessage) {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
+
+        Function<ParameterType, ReturnType> orElseThrow(Supplier<? extends RuntimeException> throwable);
 
-            private final Function<ParameterType, ReturnType> function;
-            private final Supplier<ParameterType> parameter;
+        class Impl<ParameterType, KeyType, ReturnType> implements SelectThenReturn<ParameterType, KeyType, ReturnType> {
 
-            Impl(BooleanSupplier condition, Function<ParameterType, ReturnType> function, Supplier<ParameterType> parameter) {
-                super(condition);
-                this.function = function;
-                this.parameter = parameter;
+            private final Function<ParameterType, KeyType> key;
+            private final Map<KeyType, Function<ParameterType, ReturnType>> arms;
+
+            Impl(Function<ParameterType, KeyType> key, Map<KeyType, Function<ParameterType, ReturnType>> arms) {
+                this.key = key;
+                this.arms = arms;
+            }
+
+            //first arm declaring a key wins, as in an if/else ladder
+            Impl<ParameterType, KeyType, ReturnType> arm(KeyType armKey, Function<ParameterType, ReturnType> function) {
+                Map<KeyType, Function<ParameterType, ReturnType>> moreArms = new LinkedHashMap<>(arms);
+                moreArms.putIfAbsent(armKey, function);
+                return new Impl<>(key, moreArms);
             }
 
             @Override
-            public ReturnType orElse(Function<ParameterType, ReturnType> elseFunction) {
-                return evaluateConditionAndConclude(()-> elseFunction.apply(parameter.get()));
+            public SelectOrWhenThenReturn<ParameterType, KeyType, ReturnType> orWhenEquals(KeyType key) {
+                return function -> arm(key, function);
             }
 
             @Override
-            ReturnType happyPath() {
-                return function.apply(parameter.get());
+            public Function<ParameterType, ReturnType> orElse(Function<ParameterType, ReturnType> elseFunction) {
+                return new Compiled<>(key, new HashMap<>(arms), elseFunction);
+            }
+
+            @Override
+            public Function<ParameterType, ReturnType> orElseThrow(Supplier<? extends RuntimeException> throwable) {
+                return orElse((Function<ParameterType, ReturnType>) t -> {
+                    throw throwable.get();
+                });
+            }
+        }
+
+        final class Compiled<ParameterType, KeyType, ReturnType> implements Function<ParameterType, ReturnType> {
+
+            private final Function<ParameterType, KeyType> key;
+            private final Map<KeyType, Function<ParameterType, ReturnType>> arms;
+            private final Function<ParameterType, ReturnType> elseFunction;
+
+            Compiled(Function<ParameterType, KeyType> key, Map<KeyType, Function<ParameterType, ReturnType>> arms, Function<ParameterType, ReturnType> elseFunction) {
+                this.key = key;
+                this.arms = arms;
+                this.elseFunction = elseFunction;
+            }
+
+            @Override
+            public ReturnType apply(ParameterType parameter) {
+                return arms.getOrDefault(key.apply(parameter), elseFunction).apply(parameter);
             }
         }
     }
+
+    interface SelectOrWhenThenReturn<ParameterType, KeyType, ReturnType> {
+        SelectThenReturn<ParameterType, KeyType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function);
+    }
 }
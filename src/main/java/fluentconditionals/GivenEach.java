@@ -0,0 +1,210 @@
+package fluentconditionals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+//bulk evaluation: the chain is built once and compiled into a rule, then applied to every element
+//sequential unless parallel(..) was requested and there are more elements than the sequential threshold
+public interface GivenEach<ParameterType> {
+
+    int DEFAULT_SEQUENTIAL_THRESHOLD = 4096;
+
+    default GivenEach<ParameterType> parallel() {
+        return parallel(ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    GivenEach<ParameterType> parallel(ForkJoinPool pool, int sequentialThreshold);
+
+    GivenEachWhen<ParameterType> when(Predicate<ParameterType> condition);
+
+    default GivenEachWhen<ParameterType> whenNot(Predicate<ParameterType> condition) {
+        return when(condition.negate());
+    }
+
+    interface GivenEachWhen<ParameterType> {
+        GivenEachThenExecute<ParameterType> then(Consumer<ParameterType> consumer);
+        <ReturnType> GivenEachThenReturn<ParameterType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function);
+
+        class Impl<ParameterType> implements GivenEachWhen<ParameterType> {
+
+            private final GivenEach.Impl<ParameterType> elements;
+            private final Predicate<ParameterType> condition;
+
+            Impl(GivenEach.Impl<ParameterType> elements, Predicate<ParameterType> condition) {
+                this.elements = elements;
+                this.condition = condition;
+            }
+
+            @Override
+            public GivenEachThenExecute<ParameterType> then(Consumer<ParameterType> consumer) {
+                return new GivenEachThenExecute.Impl<>(elements, FluentConditionals.rule(condition).then(consumer));
+            }
+
+            @Override
+            public <ReturnType> GivenEachThenReturn<ParameterType, ReturnType> thenReturn(Function<ParameterType, ReturnType> function) {
+                return new GivenEachThenReturn.Impl<>(elements, FluentConditionals.rule(condition).thenReturn(function));
+            }
+        }
+    }
+
+    interface GivenEachThenExecute<ParameterType> {
+        void orElse(Consumer<ParameterType> elseConsumer);
+
+        class Impl<ParameterType> implements GivenEachThenExecute<ParameterType> {
+
+            private final GivenEach.Impl<ParameterType> elements;
+            private final FluentConditionals.RuleThenExecute<ParameterType> rule;
+
+            Impl(GivenEach.Impl<ParameterType> elements, FluentConditionals.RuleThenExecute<ParameterType> rule) {
+                this.elements = elements;
+                this.rule = rule;
+            }
+
+            @Override
+            public void orElse(Consumer<ParameterType> elseConsumer) {
+                elements.forEach(rule.orElse(elseConsumer));
+            }
+        }
+    }
+
+    interface GivenEachThenReturn<ParameterType, ReturnType> {
+        List<ReturnType> orElse(Function<ParameterType, ReturnType> elseFunction);
+
+        //results written in encounter order into the given array, which must be large enough
+        ReturnType[] orElse(Function<ParameterType, ReturnType> elseFunction, ReturnType[] results);
+
+        <A, CollectionType> CollectionType orElse(Function<ParameterType, ReturnType> elseFunction, Collector<? super ReturnType, A, CollectionType> collector);
+
+        class Impl<ParameterType, ReturnType> implements GivenEachThenReturn<ParameterType, ReturnType> {
+
+            private final GivenEach.Impl<ParameterType> elements;
+            private final FluentConditionals.RuleThenReturn<ParameterType, ReturnType> rule;
+
+            Impl(GivenEach.Impl<ParameterType> elements, FluentConditionals.RuleThenReturn<ParameterType, ReturnType> rule) {
+                this.elements = elements;
+                this.rule = rule;
+            }
+
+            @Override
+            public List<ReturnType> orElse(Function<ParameterType, ReturnType> elseFunction) {
+                return elements.map(rule.orElse(elseFunction));
+            }
+
+            @Override
+            public ReturnType[] orElse(Function<ParameterType, ReturnType> elseFunction, ReturnType[] results) {
+                return elements.map(rule.orElse(elseFunction), results);
+            }
+
+            @Override
+            public <A, CollectionType> CollectionType orElse(Function<ParameterType, ReturnType> elseFunction, Collector<? super ReturnType, A, CollectionType> collector) {
+                return elements.collect(rule.orElse(elseFunction), collector);
+            }
+        }
+    }
+
+    class Impl<ParameterType> implements GivenEach<ParameterType> {
+
+        private final List<ParameterType> elements;
+        private final Stream<ParameterType> stream;
+        private final ForkJoinPool pool;
+        private final int sequentialThreshold;
+
+        Impl(List<ParameterType> elements, Stream<ParameterType> stream, ForkJoinPool pool, int sequentialThreshold) {
+            this.elements = elements == null || elements instanceof RandomAccess ? elements : new ArrayList<>(elements);
+            this.stream = stream;
+            this.pool = pool;
+            this.sequentialThreshold = sequentialThreshold;
+        }
+
+        @Override
+        public GivenEach<ParameterType> parallel(ForkJoinPool pool, int sequentialThreshold) {
+            if (sequentialThreshold < 1) throw new IllegalArgumentException("Sequential threshold must be positive: " + sequentialThreshold);
+            return new Impl<>(elements, stream, pool, sequentialThreshold);
+        }
+
+        @Override
+        public GivenEachWhen<ParameterType> when(Predicate<ParameterType> condition) {
+            return new GivenEachWhen.Impl<>(this, condition);
+        }
+
+        void forEach(Consumer<ParameterType> rule) {
+            if (elements != null) indices(elements.size(), i -> rule.accept(elements.get(i)));
+            else if (pool == null) stream.forEach(rule);
+            else pool.submit(() -> stream.parallel().forEach(rule)).join();
+        }
+
+        @SuppressWarnings("unchecked")
+        <ReturnType> List<ReturnType> map(Function<ParameterType, ReturnType> rule) {
+            if (elements == null) return collect(rule, Collectors.toList());
+            return Arrays.asList(map(rule, (ReturnType[]) new Object[elements.size()]));
+        }
+
+        <ReturnType> ReturnType[] map(Function<ParameterType, ReturnType> rule, ReturnType[] results) {
+            if (elements != null) {
+                checkCapacity(results, elements.size());
+                indices(elements.size(), i -> results[i] = rule.apply(elements.get(i)));
+            } else {
+                Object[] mapped = pool == null ? stream.map(rule).toArray() : pool.submit(() -> stream.parallel().map(rule).toArray()).join();
+                checkCapacity(results, mapped.length);
+                System.arraycopy(mapped, 0, results, 0, mapped.length);
+            }
+            return results;
+        }
+
+        <ReturnType, A, CollectionType> CollectionType collect(Function<ParameterType, ReturnType> rule, Collector<? super ReturnType, A, CollectionType> collector) {
+            Stream<ParameterType> source = elements != null ? elements.stream() : stream;
+            if (pool == null || (elements != null && elements.size() <= sequentialThreshold)) return source.map(rule).collect(collector);
+            return pool.submit(() -> source.parallel().map(rule).collect(collector)).join();
+        }
+
+        private void indices(int size, IntConsumer action) {
+            if (pool == null || size <= sequentialThreshold) {
+                for (int i = 0; i < size; i++) action.accept(i);
+            } else {
+                pool.invoke(new Range(0, size, sequentialThreshold, action));
+            }
+        }
+
+        private static void checkCapacity(Object[] results, int size) {
+            if (results.length < size) throw new IndexOutOfBoundsException("Results array too small: " + results.length + " < " + size);
+        }
+    }
+
+    final class Range extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int sequentialThreshold;
+        private final IntConsumer action;
+
+        Range(int from, int to, int sequentialThreshold, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.sequentialThreshold = sequentialThreshold;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= sequentialThreshold) {
+                for (int i = from; i < to; i++) action.accept(i);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Range(from, middle, sequentialThreshold, action), new Range(middle, to, sequentialThreshold, action));
+            }
+        }
+    }
+}
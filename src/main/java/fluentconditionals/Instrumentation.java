@@ -0,0 +1,64 @@
+package fluentconditionals;
+
+//receives what named chains do: when(..).named("pricing.discountGate").then(..).orElse(..)
+//with nothing installed named(..) hands back the unnamed stage, so instrumented call sites cost one volatile read
+public interface Instrumentation {
+
+    //asked once per evaluation of a named chain - look the probe up cheaply
+    Probe probe(String name);
+
+    interface Probe {
+        //which branch ran (true for then), how long the condition and that branch took, whether an exception left the chain
+        void evaluated(boolean branch, long conditionNanos, long branchNanos, boolean threw);
+
+        //the condition itself threw, no branch ran
+        void conditionThrew(long conditionNanos);
+    }
+
+    //both get every evaluation, e.g. Metrics for the aggregates and FlightRecorderInstrumentation for the outliers
+    default Instrumentation and(Instrumentation other) {
+        return name -> new Both(probe(name), other.probe(name));
+    }
+
+    static void install(Instrumentation instrumentation) {
+        Installed.current = instrumentation;
+    }
+
+    static void uninstall() {
+        Installed.current = null;
+    }
+
+    final class Both implements Probe {
+        private final Probe first;
+        private final Probe second;
+
+        Both(Probe first, Probe second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void evaluated(boolean branch, long conditionNanos, long branchNanos, boolean threw) {
+            first.evaluated(branch, conditionNanos, branchNanos, threw);
+            second.evaluated(branch, conditionNanos, branchNanos, threw);
+        }
+
+        @Override
+        public void conditionThrew(long conditionNanos) {
+            first.conditionThrew(conditionNanos);
+            second.conditionThrew(conditionNanos);
+        }
+    }
+
+    final class Installed {
+        static volatile Instrumentation current;
+
+        private Installed() {
+        }
+
+        static Probe probe(String name) {
+            Instrumentation instrumentation = current;
+            return instrumentation == null ? null : instrumentation.probe(name);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package fluentconditionals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+//counters and latency histograms per chain name, all striped (LongAdder) so that hot chains don't contend:
+//  Metrics metrics = new Metrics(); Instrumentation.install(metrics); ... metrics.snapshot() / metrics.export()
+public final class Metrics implements Instrumentation {
+
+    private final ConcurrentHashMap<String, Chain> chains = new ConcurrentHashMap<>();
+
+    @Override
+    public Chain probe(String name) {
+        Chain chain = chains.get(name);
+        return chain != null ? chain : chains.computeIfAbsent(name, Chain::new);
+    }
+
+    //consistent per counter, not across counters - evaluations keep running while it is taken
+    public Map<String, ChainSnapshot> snapshot() {
+        Map<String, ChainSnapshot> snapshot = new TreeMap<>();
+        chains.forEach((name, chain) -> snapshot.put(name, chain.snapshot()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    //one line per chain, e.g. pricing.discountGate true=12 false=3 threw=0 condition.p50=120ns condition.p99=880ns ...
+    public String export() {
+        StringBuilder out = new StringBuilder();
+        snapshot().forEach((name, chain) -> out.append(name).append(' ').append(chain).append('\n'));
+        return out.toString();
+    }
+
+    public void reset() {
+        chains.clear();
+    }
+
+    public static final class Chain implements Probe {
+
+        private final String name;
+        private final LongAdder whenTrue = new LongAdder();
+        private final LongAdder whenFalse = new LongAdder();
+        private final LongAdder threw = new LongAdder();
+        private final Histogram condition = new Histogram();
+        private final Histogram thenBranch = new Histogram();
+        private final Histogram elseBranch = new Histogram();
+
+        Chain(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void evaluated(boolean branch, long conditionNanos, long branchNanos, boolean threw) {
+            (branch ? whenTrue : whenFalse).increment();
+            if (threw) this.threw.increment();
+            condition.record(conditionNanos);
+            (branch ? thenBranch : elseBranch).record(branchNanos);
+        }
+
+        @Override
+        public void conditionThrew(long conditionNanos) {
+            threw.increment();
+            condition.record(conditionNanos);
+        }
+
+        ChainSnapshot snapshot() {
+            return new ChainSnapshot(name, whenTrue.sum(), whenFalse.sum(), threw.sum(),
+                    condition.snapshot(), thenBranch.snapshot(), elseBranch.snapshot());
+        }
+    }
+
+    //HDR-style log-linear buckets: exact below 8ns, then 8 sub-buckets per power of two (at most 12.5% off), capped at ~18 minutes
+    static final class Histogram {
+
+        static final int SUB_BUCKET_BITS = 3;
+        static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        static final int MAX_EXPONENT = 40;
+        static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private final LongAdder[] counts = new LongAdder[BUCKETS];
+        private final LongAdder total = new LongAdder();
+
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) counts[i] = new LongAdder();
+        }
+
+        void record(long nanos) {
+            counts[bucket(nanos)].increment();
+            total.add(nanos);
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) return (int) Math.max(0, value);
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+            int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + sub;
+        }
+
+        //largest value that falls into the bucket
+        static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) return bucket;
+            int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+            long sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+            return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+        }
+
+        HistogramSnapshot snapshot() {
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) snapshot[i] = counts[i].sum();
+            return new HistogramSnapshot(snapshot, total.sum());
+        }
+    }
+
+    //snapshots -------------------------------------------------------------------------------------------------
+
+    public static final class ChainSnapshot {
+
+        private final String name;
+        private final long whenTrue;
+        private final long whenFalse;
+        private final long threw;
+        private final HistogramSnapshot condition;
+        private final HistogramSnapshot thenBranch;
+        private final HistogramSnapshot elseBranch;
+
+        ChainSnapshot(String name, long whenTrue, long whenFalse, long threw,
+                      HistogramSnapshot condition, HistogramSnapshot thenBranch, HistogramSnapshot elseBranch) {
+            this.name = name;
+            this.whenTrue = whenTrue;
+            this.whenFalse = whenFalse;
+            this.threw = threw;
+            this.condition = condition;
+            this.thenBranch = thenBranch;
+            this.elseBranch = elseBranch;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long whenTrue() {
+            return whenTrue;
+        }
+
+        public long whenFalse() {
+            return whenFalse;
+        }
+
+        public long threw() {
+            return threw;
+        }
+
+        public HistogramSnapshot condition() {
+            return condition;
+        }
+
+        public HistogramSnapshot thenBranch() {
+            return thenBranch;
+        }
+
+        public HistogramSnapshot elseBranch() {
+            return elseBranch;
+        }
+
+        @Override
+        public String toString() {
+            List<String> fields = new ArrayList<>();
+            fields.add("true=" + whenTrue);
+            fields.add("false=" + whenFalse);
+            fields.add("threw=" + threw);
+            condition.describe("condition", fields);
+            thenBranch.describe("then", fields);
+            elseBranch.describe("else", fields);
+            return String.join(" ", fields);
+        }
+    }
+
+    public static final class HistogramSnapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+
+        HistogramSnapshot(long[] counts, long totalNanos) {
+            this.counts = counts;
+            this.totalNanos = totalNanos;
+            long count = 0;
+            for (long c : counts) count += c;
+            this.count = count;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public double meanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        //upper bound of the bucket holding the given percentile (0-100), 0 when empty
+        public long percentileNanos(double percentile) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Histogram.upperBound(i);
+            }
+            return Histogram.upperBound(counts.length - 1);
+        }
+
+        public long maxNanos() {
+            return percentileNanos(100);
+        }
+
+        void describe(String prefix, List<String> fields) {
+            if (count == 0) return;
+            fields.add(prefix + ".p50=" + percentileNanos(50) + "ns");
+            fields.add(prefix + ".p99=" + percentileNanos(99) + "ns");
+            fields.add(prefix + ".max=" + maxNanos() + "ns");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package fluentconditionals;
+
+//outcome of orElseFail(..): either the value of the branch that ran, or the failure given for the negative path
+//failures are plain values, nothing is thrown or captured unless value() is called on one
+public abstract class Result<ReturnType> {
+
+    private static final Result<Void> SUCCESS = new Success<>(null);
+
+    Result() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <ReturnType> Result<ReturnType> success() {
+        return (Result<ReturnType>) SUCCESS;
+    }
+
+    static <ReturnType> Result<ReturnType> success(ReturnType value) {
+        return new Success<>(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <ReturnType> Result<ReturnType> failure(Failure failure) {
+        return (Result<ReturnType>) failure;
+    }
+
+    public abstract boolean isSuccess();
+
+    public final boolean isFailure() {
+        return !isSuccess();
+    }
+
+    //the value, or a StacklessException carrying the failure message
+    public abstract ReturnType value();
+
+    //null for successes
+    public abstract String message();
+
+    static final class Success<ReturnType> extends Result<ReturnType> {
+
+        private final ReturnType value;
+
+        Success(ReturnType value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return true;
+        }
+
+        @Override
+        public ReturnType value() {
+            return value;
+        }
+
+        @Override
+        public String message() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return "Success[" + value + "]";
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package fluentconditionals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+//bounded, thread-safe LRU cache of condition or branch results per parameter, shared by every chain it is attached to
+//keys are spread over independently locked LRU stripes; results are computed outside the locks
+public final class ResultCache<KeyType, ValueType> {
+
+    private static final Object NULL = new Object();
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    ResultCache(int maximumSize) {
+        if (maximumSize < 1) throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        int count = Integer.highestOneBit(Math.max(1, Math.min(maximumSize / 16, Runtime.getRuntime().availableProcessors() * 2)));
+        stripes = new Stripe[count];
+        mask = count - 1;
+        for (int i = 0; i < count; i++) stripes[i] = new Stripe(maximumSize / count + (i < maximumSize % count ? 1 : 0), evictions);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ValueType get(KeyType key, Function<? super KeyType, ? extends ValueType> compute) {
+        Stripe stripe = stripeFor(key);
+        Object cached;
+        synchronized (stripe) {
+            cached = stripe.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached == NULL ? null : (ValueType) cached;
+        }
+        misses.increment();
+        ValueType computed = compute.apply(key);
+        synchronized (stripe) {
+            stripe.putIfAbsent(key, computed == null ? NULL : computed);
+        }
+        return computed;
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public double hitRatio() {
+        long hits = hits(), requests = hits + misses();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    private Stripe stripeFor(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    @Override
+    public String toString() {
+        return "ResultCache{size=" + size() + ", hits=" + hits() + ", misses=" + misses() + ", evictions=" + evictions() + "}";
+    }
+
+    private static final class Stripe extends LinkedHashMap<Object, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Stripe(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+            if (size() <= capacity) return false;
+            evictions.increment();
+            return true;
+        }
+    }
+}
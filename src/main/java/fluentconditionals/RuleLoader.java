@@ -0,0 +1,549 @@
+package fluentconditionals;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.zip.CRC32;
+
+//rules kept in a text file, one per line, compiled into the same rule(..).thenReturn(..).orElse(..) functions the fluent API builds:
+//  # comment
+//  pricing.discount: amount >= 1000 && (country == "PL" || vip) then 0.15 else 0.0
+//  limits.amount:    amount <= 50000 then "accepted" else throw "Amount over limit"
+//values are numbers (Long or Double), "text" or true/false; conditions compare the fields declared on the loader
+//evaluation never looks at the text again - every condition is a tree of predicates over the field extractors
+//reload() swaps all rules at once; a file that fails to parse leaves the previous rules in place
+public final class RuleLoader<ParameterType> {
+
+    private static final int CACHE_FORMAT = 2;
+
+    private final Path file;
+    private final Map<String, ToDoubleFunction<ParameterType>> numbers = new HashMap<>();
+    private final Map<String, Function<ParameterType, String>> texts = new HashMap<>();
+    private final Map<String, Predicate<ParameterType>> flags = new HashMap<>();
+    private Path cache;
+    private volatile Map<String, Function<ParameterType, Object>> rules;
+
+    RuleLoader(Path file) {
+        this.file = file;
+    }
+
+    //fields are declared before the first reload()
+
+    public RuleLoader<ParameterType> number(String field, ToDoubleFunction<ParameterType> extractor) {
+        numbers.put(field, extractor);
+        return this;
+    }
+
+    public RuleLoader<ParameterType> text(String field, Function<ParameterType, String> extractor) {
+        texts.put(field, extractor);
+        return this;
+    }
+
+    public RuleLoader<ParameterType> flag(String field, Predicate<ParameterType> extractor) {
+        flags.put(field, extractor);
+        return this;
+    }
+
+    //parsed definitions are kept here and reused while the rule file keeps its size and modification time
+    public RuleLoader<ParameterType> snapshotCache(Path cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    //the cache key includes a checksum of the text: an in-place edit can keep both the size and the modification time
+    public synchronized RuleLoader<ParameterType> reload() {
+        byte[] text;
+        long size, modified;
+        try {
+            //taken before the text and checked again before storing, so an edit in between is never cached as the old rules
+            size = Files.size(file);
+            modified = Files.getLastModifiedTime(file).toMillis();
+            text = Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read rules from " + file, e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(text, 0, text.length);
+        long checksum = crc.getValue();
+        Map<String, Function<ParameterType, Object>> compiled = null;
+        List<Definition> definitions = cached(size, modified, checksum);
+        if (definitions != null) {
+            try {
+                compiled = compile(definitions);
+            } catch (RuntimeException e) {
+                //a snapshot that reads but doesn't compile is as unreadable as a truncated one
+            }
+        }
+        if (compiled == null) {
+            definitions = parse(new String(text, StandardCharsets.UTF_8));
+            compiled = compile(definitions);
+            rules = compiled;
+            store(definitions, size, modified, checksum);
+        } else {
+            rules = compiled;
+        }
+        return this;
+    }
+
+    private Map<String, Function<ParameterType, Object>> compile(List<Definition> definitions) {
+        Map<String, Function<ParameterType, Object>> compiled = new HashMap<>(definitions.size() * 2);
+        for (Definition definition : definitions) compiled.put(definition.name, compile(definition));
+        return compiled;
+    }
+
+    public int size() {
+        return loaded().size();
+    }
+
+    //follows reloads: each call is answered by the rule as currently loaded
+    @SuppressWarnings("unchecked")
+    public <ReturnType> Function<ParameterType, ReturnType> rule(String name) {
+        if (!loaded().containsKey(name)) throw new IllegalArgumentException("No rule '" + name + "' in " + file);
+        return (Function<ParameterType, ReturnType>) new Handle<>(this, name);
+    }
+
+    private Map<String, Function<ParameterType, Object>> loaded() {
+        Map<String, Function<ParameterType, Object>> current = rules;
+        if (current == null) throw new IllegalStateException("Rules not loaded yet, call reload() first");
+        return current;
+    }
+
+    static final class Handle<ParameterType> implements Function<ParameterType, Object> {
+
+        private final RuleLoader<ParameterType> loader;
+        private final String name;
+        private volatile Binding<ParameterType> binding;
+
+        Handle(RuleLoader<ParameterType> loader, String name) {
+            this.loader = loader;
+            this.name = name;
+        }
+
+        @Override
+        public Object apply(ParameterType parameter) {
+            Map<String, Function<ParameterType, Object>> current = loader.rules;
+            Binding<ParameterType> bound = binding;
+            if (bound == null || bound.rules != current) {
+                Function<ParameterType, Object> rule = current.get(name);
+                if (rule == null) throw new IllegalStateException("Rule '" + name + "' was removed from " + loader.file);
+                binding = bound = new Binding<>(current, rule);
+            }
+            return bound.rule.apply(parameter);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static final class Binding<ParameterType> {
+        final Map<String, Function<ParameterType, Object>> rules;
+        final Function<ParameterType, Object> rule;
+
+        Binding(Map<String, Function<ParameterType, Object>> rules, Function<ParameterType, Object> rule) {
+            this.rules = rules;
+            this.rule = rule;
+        }
+    }
+
+    //definitions -------------------------------------------------------------------------------------------------
+
+    //a parsed line: the condition in postfix, e.g. amount >= 1000 && vip  ->  [CMP amount >= 1000] [FLAG vip] [AND]
+    static final class Definition {
+        final String name;
+        final List<Op> condition;
+        final Object thenValue;
+        final Object elseValue;
+        final String throwMessage;//null when there is an else value
+
+        Definition(String name, List<Op> condition, Object thenValue, Object elseValue, String throwMessage) {
+            this.name = name;
+            this.condition = condition;
+            this.thenValue = thenValue;
+            this.elseValue = elseValue;
+            this.throwMessage = throwMessage;
+        }
+    }
+
+    static final class Op {
+        static final byte FLAG = 0, COMPARE = 1, AND = 2, OR = 3, NOT = 4;
+
+        final byte code;
+        final String field;
+        final String operator;
+        final Object literal;
+
+        Op(byte code, String field, String operator, Object literal) {
+            this.code = code;
+            this.field = field;
+            this.operator = operator;
+            this.literal = literal;
+        }
+    }
+
+    //compilation: postfix ops folded into predicates over the extractors ------------------------------------------
+
+    private Function<ParameterType, Object> compile(Definition definition) {
+        Predicate<ParameterType> condition = condition(definition);
+        Object thenValue = definition.thenValue;
+        FluentConditionals.RuleThenReturn<ParameterType, Object> rule = FluentConditionals.rule(condition).thenReturn(p -> thenValue);
+        if (definition.throwMessage != null) return rule.orElseThrow(new Failure(definition.throwMessage, new Object[0]));
+        Object elseValue = definition.elseValue;
+        return rule.orElse(p -> elseValue);
+    }
+
+    private Predicate<ParameterType> condition(Definition definition) {
+        List<Predicate<ParameterType>> stack = new ArrayList<>();
+        for (Op op : definition.condition) {
+            switch (op.code) {
+                case Op.FLAG:
+                    stack.add(resolve(flags, op.field, "flag", definition));
+                    break;
+                case Op.COMPARE:
+                    stack.add(comparison(op, definition));
+                    break;
+                case Op.NOT:
+                    stack.add(pop(stack).negate());
+                    break;
+                case Op.AND:
+                case Op.OR:
+                    Predicate<ParameterType> right = pop(stack);
+                    Predicate<ParameterType> left = pop(stack);
+                    stack.add(op.code == Op.AND ? left.and(right) : left.or(right));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown operation " + op.code + " in rule '" + definition.name + "'");
+            }
+        }
+        if (stack.size() != 1) throw new IllegalArgumentException("Malformed condition in rule '" + definition.name + "'");
+        return stack.get(0);
+    }
+
+    private Predicate<ParameterType> comparison(Op op, Definition definition) {
+        if (op.literal instanceof String) {
+            Function<ParameterType, String> text = resolve(texts, op.field, "text", definition);
+            String expected = (String) op.literal;
+            switch (op.operator) {
+                case "==": return p -> expected.equals(text.apply(p));
+                case "!=": return p -> !expected.equals(text.apply(p));
+                default: throw new IllegalArgumentException("Rule '" + definition.name + "': text fields compare with == and != only, got " + op.operator);
+            }
+        }
+        if (op.literal instanceof Boolean) {
+            Predicate<ParameterType> flag = resolve(flags, op.field, "flag", definition);
+            switch (op.operator) {
+                case "==": return (Boolean) op.literal ? flag : flag.negate();
+                case "!=": return (Boolean) op.literal ? flag.negate() : flag;
+                default: throw new IllegalArgumentException("Rule '" + definition.name + "': flags compare with == and != only, got " + op.operator);
+            }
+        }
+        ToDoubleFunction<ParameterType> number = resolve(numbers, op.field, "number", definition);
+        double expected = ((Number) op.literal).doubleValue();
+        switch (op.operator) {
+            case "==": return p -> number.applyAsDouble(p) == expected;
+            case "!=": return p -> number.applyAsDouble(p) != expected;
+            case ">": return p -> number.applyAsDouble(p) > expected;
+            case ">=": return p -> number.applyAsDouble(p) >= expected;
+            case "<": return p -> number.applyAsDouble(p) < expected;
+            default: return p -> number.applyAsDouble(p) <= expected;
+        }
+    }
+
+    private <T> T resolve(Map<String, T> fields, String field, String kind, Definition definition) {
+        T extractor = fields.get(field);
+        if (extractor == null) throw new IllegalArgumentException("Rule '" + definition.name + "': no " + kind + " field '" + field + "' declared");
+        return extractor;
+    }
+
+    private static <T> T pop(List<T> stack) {
+        if (stack.isEmpty()) throw new IllegalArgumentException("Malformed condition");
+        return stack.remove(stack.size() - 1);
+    }
+
+    //parsing -----------------------------------------------------------------------------------------------------
+
+    //startup cost is mostly interpreted bytecode, hence the plain character loops here and in the parser
+    List<Definition> parse(String text) {
+        List<Definition> definitions = new ArrayList<>();
+        Map<String, Integer> seen = new HashMap<>();
+        int lineNumber = 0;
+        for (int start = 0, end; start < text.length(); start = end + 1) {
+            end = text.indexOf('\n', start);
+            if (end < 0) end = text.length();
+            lineNumber++;
+            String line = text.substring(start, end).trim();
+            if (line.isEmpty() || line.charAt(0) == '#') continue;
+            try {
+                Definition definition = new Parser(line).definition();
+                Integer previous = seen.put(definition.name, lineNumber);
+                if (previous != null) throw new IllegalArgumentException("rule '" + definition.name + "' already defined on line " + previous);
+                definitions.add(definition);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(file + ":" + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return definitions;
+    }
+
+    //recursive descent over one line, || binds looser than &&, ! tightest
+    static final class Parser {
+
+        private final String line;
+        private int position;
+
+        Parser(String line) {
+            this.line = line;
+        }
+
+        Definition definition() {
+            int colon = line.indexOf(':');
+            if (colon < 1) throw new IllegalArgumentException("expected 'name: condition then value else value'");
+            String name = line.substring(0, colon).trim();
+            position = colon + 1;
+            List<Op> condition = new ArrayList<>();
+            or(condition);
+            keyword("then");
+            Object thenValue = value();
+            keyword("else");
+            String throwMessage = null;
+            Object elseValue = null;
+            if (peekWord("throw")) {
+                keyword("throw");
+                Object message = value();
+                if (!(message instanceof String)) throw new IllegalArgumentException("throw needs a \"message\"");
+                throwMessage = (String) message;
+            } else {
+                elseValue = value();
+            }
+            skipSpaces();
+            if (position != line.length()) throw new IllegalArgumentException("unexpected '" + line.substring(position) + "'");
+            return new Definition(name, condition, thenValue, elseValue, throwMessage);
+        }
+
+        private void or(List<Op> out) {
+            and(out);
+            while (symbol("||")) {
+                and(out);
+                out.add(new Op(Op.OR, null, null, null));
+            }
+        }
+
+        private void and(List<Op> out) {
+            unary(out);
+            while (symbol("&&")) {
+                unary(out);
+                out.add(new Op(Op.AND, null, null, null));
+            }
+        }
+
+        private void unary(List<Op> out) {
+            if (symbol("!")) {
+                unary(out);
+                out.add(new Op(Op.NOT, null, null, null));
+            } else if (symbol("(")) {
+                or(out);
+                if (!symbol(")")) throw new IllegalArgumentException("missing ')' at column " + (position + 1));
+            } else {
+                String field = word();
+                String operator = operator();
+                if (operator == null) out.add(new Op(Op.FLAG, field, null, null));
+                else out.add(new Op(Op.COMPARE, field, operator, value()));
+            }
+        }
+
+        private String operator() {
+            skipSpaces();
+            if (position >= line.length()) return null;
+            char c = line.charAt(position);
+            boolean orEqual = position + 1 < line.length() && line.charAt(position + 1) == '=';
+            switch (c) {
+                case '=':
+                case '!':
+                    if (!orEqual) return null;
+                    position += 2;
+                    return c == '=' ? "==" : "!=";
+                case '>':
+                    position += orEqual ? 2 : 1;
+                    return orEqual ? ">=" : ">";
+                case '<':
+                    position += orEqual ? 2 : 1;
+                    return orEqual ? "<=" : "<";
+                default:
+                    return null;
+            }
+        }
+
+        private Object value() {
+            skipSpaces();
+            if (position < line.length() && line.charAt(position) == '"') {
+                int end = line.indexOf('"', position + 1);
+                if (end < 0) throw new IllegalArgumentException("unterminated text at column " + (position + 1));
+                String text = line.substring(position + 1, end);
+                position = end + 1;
+                return text;
+            }
+            String word = word();
+            if (word.equals("true") || word.equals("false")) return Boolean.valueOf(word);
+            try {
+                return word.indexOf('.') < 0 ? (Object) Long.valueOf(word) : (Object) Double.valueOf(word);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("expected a number, \"text\", true or false, got '" + word + "'");
+            }
+        }
+
+        private String word() {
+            skipSpaces();
+            int start = position;
+            while (position < line.length()) {
+                char c = line.charAt(position);
+                boolean partOfWord = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '.' || c == '-';
+                if (!partOfWord) break;
+                position++;
+            }
+            if (start == position) throw new IllegalArgumentException("expected a name or value at column " + (start + 1));
+            return line.substring(start, position);
+        }
+
+        private void keyword(String keyword) {
+            if (!peekWord(keyword)) throw new IllegalArgumentException("expected '" + keyword + "' at column " + (position + 1));
+            position += keyword.length();
+        }
+
+        private boolean peekWord(String keyword) {
+            skipSpaces();
+            return line.startsWith(keyword, position)
+                    && (position + keyword.length() == line.length() || line.charAt(position + keyword.length()) == ' ' || line.charAt(position + keyword.length()) == '\t');
+        }
+
+        private boolean symbol(String symbol) {
+            skipSpaces();
+            if (!line.startsWith(symbol, position)) return false;
+            //"!" must not swallow the start of "!="
+            if (symbol.equals("!") && line.startsWith("!=", position)) return false;
+            position += symbol.length();
+            return true;
+        }
+
+        private void skipSpaces() {
+            while (position < line.length() && (line.charAt(position) == ' ' || line.charAt(position) == '\t')) position++;
+        }
+    }
+
+    //snapshot cache ----------------------------------------------------------------------------------------------
+
+    private List<Definition> cached(long size, long modified, long checksum) {
+        if (cache == null || !Files.exists(cache)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cache)))) {
+            if (in.readInt() != CACHE_FORMAT || in.readLong() != size || in.readLong() != modified || in.readLong() != checksum) return null;
+            int count = in.readInt();
+            List<Definition> definitions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                int ops = in.readInt();
+                List<Op> condition = new ArrayList<>(ops);
+                for (int k = 0; k < ops; k++) {
+                    byte code = in.readByte();
+                    if (code < Op.FLAG || code > Op.NOT) return null;
+                    String field = code == Op.FLAG || code == Op.COMPARE ? in.readUTF() : null;
+                    String operator = code == Op.COMPARE ? in.readUTF() : null;
+                    Object literal = code == Op.COMPARE ? readValue(in) : null;
+                    condition.add(new Op(code, field, operator, literal));
+                }
+                Object thenValue = readValue(in);
+                String throwMessage = in.readBoolean() ? in.readUTF() : null;
+                Object elseValue = throwMessage == null ? readValue(in) : null;
+                definitions.add(new Definition(name, condition, thenValue, elseValue, throwMessage));
+            }
+            return definitions;
+        } catch (IOException | RuntimeException e) {
+            //unreadable cache - parse the rule file instead and rewrite it
+            return null;
+        }
+    }
+
+    //written next to the cache and moved over it, so readers never see half a snapshot
+    //best effort: the rules are already published, a cache that can't be written is simply not there next time
+    private void store(List<Definition> definitions, long size, long modified, long checksum) {
+        if (cache == null) return;
+        Path written = cache.resolveSibling(cache.getFileName() + ".tmp");
+        try {
+            if (Files.size(file) != size || Files.getLastModifiedTime(file).toMillis() != modified) return;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(written)))) {
+                out.writeInt(CACHE_FORMAT);
+                out.writeLong(size);
+                out.writeLong(modified);
+                out.writeLong(checksum);
+                out.writeInt(definitions.size());
+                for (Definition definition : definitions) {
+                    out.writeUTF(definition.name);
+                    out.writeInt(definition.condition.size());
+                    for (Op op : definition.condition) {
+                        out.writeByte(op.code);
+                        if (op.code == Op.FLAG || op.code == Op.COMPARE) out.writeUTF(op.field);
+                        if (op.code == Op.COMPARE) {
+                            out.writeUTF(op.operator);
+                            writeValue(out, op.literal);
+                        }
+                    }
+                    writeValue(out, definition.thenValue);
+                    out.writeBoolean(definition.throwMessage != null);
+                    if (definition.throwMessage != null) out.writeUTF(definition.throwMessage);
+                    else writeValue(out, definition.elseValue);
+                }
+            }
+            try {
+                Files.move(written, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(written, cache, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(written);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Long) {
+            out.writeByte('L');
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte('D');
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte('B');
+            out.writeBoolean((Boolean) value);
+        } else {
+            out.writeByte('S');
+            out.writeUTF((String) value);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case 'L': return in.readLong();
+            case 'D': return in.readDouble();
+            case 'B': return in.readBoolean();
+            case 'S': return in.readUTF();
+            default: throw new IOException("Unknown value type " + type);
+        }
+    }
+}
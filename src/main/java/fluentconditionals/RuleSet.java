@@ -0,0 +1,423 @@
+package fluentconditionals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+//named given/when/then rules evaluated per event, indexed so that an event only looks at candidate rules:
+//  rules.rule("big-order").whereEquals(TYPE, "ORDER").whereBetween(AMOUNT, 1000, Long.MAX_VALUE).when(..).then(..)
+//the first discriminator of a rule is its index entry, any others are checked before the condition
+//evaluation reads an immutable snapshot; every change (or update(..) batch of changes) publishes a new one
+public final class RuleSet<ParameterType> {
+
+    private final List<HashAttribute<ParameterType, ?>> hashAttributes = new ArrayList<>();
+    private final List<RangeAttribute<ParameterType>> rangeAttributes = new ArrayList<>();
+    private final Map<String, Rule<ParameterType>> rules = new LinkedHashMap<>();
+    private volatile Snapshot<ParameterType> snapshot = new Snapshot<>(new ArrayList<>(), this);
+    private long ordinals;
+    private int batching;
+
+    RuleSet() {
+    }
+
+    //attributes must be declared before the rules that use them
+
+    public synchronized <KeyType> HashAttribute<ParameterType, KeyType> hashIndex(String name, Function<ParameterType, KeyType> extractor) {
+        HashAttribute<ParameterType, KeyType> attribute = new HashAttribute<>(this, name, extractor, hashAttributes.size());
+        hashAttributes.add(attribute);
+        publish();
+        return attribute;
+    }
+
+    public synchronized RangeAttribute<ParameterType> rangeIndex(String name, ToLongFunction<ParameterType> extractor) {
+        RangeAttribute<ParameterType> attribute = new RangeAttribute<>(this, name, extractor, rangeAttributes.size());
+        rangeAttributes.add(attribute);
+        publish();
+        return attribute;
+    }
+
+    //registering a name again replaces that rule, keeping its position in first-match order
+    public RuleDefinition<ParameterType> rule(String name) {
+        return new RuleDefinition<>(this, name);
+    }
+
+    public synchronized boolean remove(String name) {
+        boolean removed = rules.remove(name) != null;
+        if (removed) publish();
+        return removed;
+    }
+
+    //several changes published as one snapshot; if changes throws, none of them is kept
+    public synchronized void update(Consumer<RuleSet<ParameterType>> changes) {
+        Map<String, Rule<ParameterType>> rulesBefore = new LinkedHashMap<>(rules);
+        long ordinalsBefore = ordinals;
+        int hashAttributesBefore = hashAttributes.size(), rangeAttributesBefore = rangeAttributes.size();
+        batching++;
+        try {
+            changes.accept(this);
+        } catch (Throwable e) {
+            rules.clear();
+            rules.putAll(rulesBefore);
+            ordinals = ordinalsBefore;
+            hashAttributes.subList(hashAttributesBefore, hashAttributes.size()).clear();
+            rangeAttributes.subList(rangeAttributesBefore, rangeAttributes.size()).clear();
+            throw e;
+        } finally {
+            batching--;
+        }
+        publish();
+    }
+
+    public int size() {
+        return snapshot.size;
+    }
+
+    //fires the first matching rule in registration order, returns its name or null
+    public String fireFirst(ParameterType event) {
+        return snapshot.fireFirst(event);
+    }
+
+    //fires every matching rule in registration order, returns how many fired
+    public int fireAll(ParameterType event) {
+        return snapshot.fireAll(event);
+    }
+
+    //checked under the lock: an attribute declared in an update(..) that was rolled back is gone by now
+    synchronized void register(Rule<ParameterType> rule) {
+        for (Discriminator<ParameterType> discriminator : rule.discriminators) {
+            boolean declared = discriminator.hash != null
+                    ? discriminator.hash.slot < hashAttributes.size() && hashAttributes.get(discriminator.hash.slot) == discriminator.hash
+                    : discriminator.range.slot < rangeAttributes.size() && rangeAttributes.get(discriminator.range.slot) == discriminator.range;
+            if (!declared) throw new IllegalStateException("Attribute " + (discriminator.hash != null ? discriminator.hash : discriminator.range) + " is no longer declared, rule '" + rule.name + "' not registered");
+        }
+        Rule<ParameterType> previous = rules.get(rule.name);
+        long ordinalsBefore = ordinals;
+        rules.put(rule.name, previous == null ? rule.withOrdinal(ordinals++) : rule.withOrdinal(previous.ordinal));
+        try {
+            publish();
+        } catch (RuntimeException | Error e) {
+            if (previous == null) rules.remove(rule.name);
+            else rules.put(rule.name, previous);
+            ordinals = ordinalsBefore;
+            throw e;
+        }
+    }
+
+    private void publish() {
+        if (batching == 0) snapshot = new Snapshot<>(new ArrayList<>(rules.values()), this);
+    }
+
+    //attributes ---------------------------------------------------------------------------------------------------
+
+    public static final class HashAttribute<ParameterType, KeyType> {
+        final RuleSet<ParameterType> ruleSet;
+        final String name;
+        final Function<ParameterType, KeyType> extractor;
+        final int slot;
+
+        HashAttribute(RuleSet<ParameterType> ruleSet, String name, Function<ParameterType, KeyType> extractor, int slot) {
+            this.ruleSet = ruleSet;
+            this.name = name;
+            this.extractor = extractor;
+            this.slot = slot;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    public static final class RangeAttribute<ParameterType> {
+        final RuleSet<ParameterType> ruleSet;
+        final String name;
+        final ToLongFunction<ParameterType> extractor;
+        final int slot;
+
+        RangeAttribute(RuleSet<ParameterType> ruleSet, String name, ToLongFunction<ParameterType> extractor, int slot) {
+            this.ruleSet = ruleSet;
+            this.name = name;
+            this.extractor = extractor;
+            this.slot = slot;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    //rule definition ----------------------------------------------------------------------------------------------
+
+    public static final class RuleDefinition<ParameterType> {
+
+        private final RuleSet<ParameterType> ruleSet;
+        private final String name;
+        private final List<Discriminator<ParameterType>> discriminators = new ArrayList<>();
+
+        RuleDefinition(RuleSet<ParameterType> ruleSet, String name) {
+            this.ruleSet = ruleSet;
+            this.name = name;
+        }
+
+        public <KeyType> RuleDefinition<ParameterType> whereEquals(HashAttribute<ParameterType, KeyType> attribute, KeyType value) {
+            checkOwner(attribute.ruleSet, attribute);
+            discriminators.add(new Discriminator<>(attribute, value, null, 0, 0));
+            return this;
+        }
+
+        //inclusive on both ends
+        public RuleDefinition<ParameterType> whereBetween(RangeAttribute<ParameterType> attribute, long from, long to) {
+            checkOwner(attribute.ruleSet, attribute);
+            if (from > to) throw new IllegalArgumentException("Empty range for " + attribute + ": " + from + " > " + to);
+            discriminators.add(new Discriminator<>(null, null, attribute, from, to));
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public RuleWhen<ParameterType> when(Predicate<ParameterType> condition) {
+            return action -> ruleSet.register(new Rule<>(name, discriminators.toArray((Discriminator<ParameterType>[]) new Discriminator<?>[0]), condition, action, -1));
+        }
+
+        private void checkOwner(RuleSet<ParameterType> owner, Object attribute) {
+            if (owner != ruleSet) throw new IllegalArgumentException("Attribute " + attribute + " belongs to another RuleSet");
+        }
+
+        //fires on the discriminators alone
+        public void then(Consumer<ParameterType> action) {
+            when(FluentConditionals.GivenWhen.Impl.constant(true)).then(action);
+        }
+    }
+
+    public interface RuleWhen<ParameterType> {
+        void then(Consumer<ParameterType> action);
+    }
+
+    static final class Discriminator<ParameterType> {
+        final HashAttribute<ParameterType, ?> hash;
+        final Object value;
+        final RangeAttribute<ParameterType> range;
+        final long from;
+        final long to;
+
+        Discriminator(HashAttribute<ParameterType, ?> hash, Object value, RangeAttribute<ParameterType> range, long from, long to) {
+            this.hash = hash;
+            this.value = value;
+            this.range = range;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean test(ParameterType event) {
+            if (hash != null) return Objects.equals(hash.extractor.apply(event), value);
+            long x = range.extractor.applyAsLong(event);
+            return x >= from && x <= to;
+        }
+    }
+
+    static final class Rule<ParameterType> {
+        final String name;
+        final Discriminator<ParameterType>[] discriminators;
+        final Predicate<ParameterType> condition;
+        final Consumer<ParameterType> action;
+        final long ordinal;
+
+        Rule(String name, Discriminator<ParameterType>[] discriminators, Predicate<ParameterType> condition, Consumer<ParameterType> action, long ordinal) {
+            this.name = name;
+            this.discriminators = discriminators;
+            this.condition = condition;
+            this.action = action;
+            this.ordinal = ordinal;
+        }
+
+        Rule<ParameterType> withOrdinal(long ordinal) {
+            return new Rule<>(name, discriminators, condition, action, ordinal);
+        }
+
+        //the first discriminator is covered by the index lookup
+        boolean matches(ParameterType event) {
+            for (int i = 1; i < discriminators.length; i++) {
+                if (!discriminators[i].test(event)) return false;
+            }
+            return condition.test(event);
+        }
+    }
+
+    //snapshot -----------------------------------------------------------------------------------------------------
+
+    static final class Snapshot<ParameterType> {
+
+        private final int size;
+        private final Rule<ParameterType>[] unindexed;
+        private final HashAttribute<ParameterType, ?>[] hashAttributes;
+        private final Map<Object, Rule<ParameterType>[]>[] hashIndexes;
+        private final RangeAttribute<ParameterType>[] rangeAttributes;
+        private final RangeNode<ParameterType>[] rangeIndexes;//per attribute, an interval tree over the primary ranges
+
+        @SuppressWarnings("unchecked")
+        Snapshot(List<Rule<ParameterType>> rules, RuleSet<ParameterType> ruleSet) {
+            rules.sort(Comparator.comparingLong(r -> r.ordinal));
+            size = rules.size();
+            hashAttributes = ruleSet.hashAttributes.toArray((HashAttribute<ParameterType, ?>[]) new HashAttribute<?, ?>[0]);
+            rangeAttributes = ruleSet.rangeAttributes.toArray((RangeAttribute<ParameterType>[]) new RangeAttribute<?>[0]);
+
+            List<Rule<ParameterType>> none = new ArrayList<>();
+            List<Map<Object, List<Rule<ParameterType>>>> hashed = new ArrayList<>();
+            for (int i = 0; i < hashAttributes.length; i++) hashed.add(new HashMap<>());
+            List<List<Rule<ParameterType>>> ranged = new ArrayList<>();
+            for (int i = 0; i < rangeAttributes.length; i++) ranged.add(new ArrayList<>());
+
+            for (Rule<ParameterType> rule : rules) {
+                if (rule.discriminators.length == 0) {
+                    none.add(rule);
+                    continue;
+                }
+                Discriminator<ParameterType> primary = rule.discriminators[0];
+                if (primary.hash != null) hashed.get(primary.hash.slot).computeIfAbsent(primary.value, k -> new ArrayList<>()).add(rule);
+                else ranged.get(primary.range.slot).add(rule);
+            }
+
+            unindexed = none.toArray((Rule<ParameterType>[]) new Rule<?>[0]);
+            hashIndexes = (Map<Object, Rule<ParameterType>[]>[]) new Map<?, ?>[hashAttributes.length];
+            for (int i = 0; i < hashAttributes.length; i++) {
+                Map<Object, Rule<ParameterType>[]> index = new HashMap<>();
+                hashed.get(i).forEach((key, bucket) -> index.put(key, bucket.toArray((Rule<ParameterType>[]) new Rule<?>[0])));
+                hashIndexes[i] = index;
+            }
+            rangeIndexes = (RangeNode<ParameterType>[]) new RangeNode<?>[rangeAttributes.length];
+            for (int i = 0; i < rangeAttributes.length; i++) rangeIndexes[i] = RangeNode.build(ranged.get(i));
+        }
+
+        String fireFirst(ParameterType event) {
+            Rule<ParameterType> best = firstIn(unindexed, event, null);
+            for (int i = 0; i < hashAttributes.length; i++) {
+                Rule<ParameterType>[] bucket = hashIndexes[i].get(hashAttributes[i].extractor.apply(event));
+                if (bucket != null) best = firstIn(bucket, event, best);
+            }
+            for (int i = 0; i < rangeAttributes.length; i++) {
+                long x = rangeAttributes[i].extractor.applyAsLong(event);
+                for (RangeNode<ParameterType> node = rangeIndexes[i]; node != null; node = node.next(x)) {
+                    for (int r = 0, end = node.containing(x); r < end; r++) {
+                        Rule<ParameterType> rule = node.rule(x, r);
+                        if ((best == null || rule.ordinal < best.ordinal) && rule.matches(event)) best = rule;
+                    }
+                }
+            }
+            if (best == null) return null;
+            best.action.accept(event);
+            return best.name;
+        }
+
+        //buckets are in registration order: stop at the first match, or once nothing can beat the current best
+        private static <ParameterType> Rule<ParameterType> firstIn(Rule<ParameterType>[] bucket, ParameterType event, Rule<ParameterType> best) {
+            for (Rule<ParameterType> rule : bucket) {
+                if (best != null && rule.ordinal > best.ordinal) return best;
+                if (rule.matches(event)) return rule;
+            }
+            return best;
+        }
+
+        int fireAll(ParameterType event) {
+            //collected first so that the actions run in registration order across indexes
+            List<Rule<ParameterType>> fired = null;
+            for (Rule<ParameterType> rule : unindexed) if (rule.matches(event)) fired = add(fired, rule);
+            for (int i = 0; i < hashAttributes.length; i++) {
+                Rule<ParameterType>[] bucket = hashIndexes[i].get(hashAttributes[i].extractor.apply(event));
+                if (bucket != null) for (Rule<ParameterType> rule : bucket) if (rule.matches(event)) fired = add(fired, rule);
+            }
+            for (int i = 0; i < rangeAttributes.length; i++) {
+                long x = rangeAttributes[i].extractor.applyAsLong(event);
+                for (RangeNode<ParameterType> node = rangeIndexes[i]; node != null; node = node.next(x)) {
+                    for (int r = 0, end = node.containing(x); r < end; r++) {
+                        Rule<ParameterType> rule = node.rule(x, r);
+                        if (rule.matches(event)) fired = add(fired, rule);
+                    }
+                }
+            }
+            if (fired == null) return 0;
+            fired.sort(Comparator.comparingLong(r -> r.ordinal));
+            for (Rule<ParameterType> rule : fired) rule.action.accept(event);
+            return fired.size();
+        }
+
+        private static <ParameterType> List<Rule<ParameterType>> add(List<Rule<ParameterType>> fired, Rule<ParameterType> rule) {
+            if (fired == null) fired = new ArrayList<>();
+            fired.add(rule);
+            return fired;
+        }
+
+    }
+
+    //centered interval tree: each node keeps the ranges containing its center, sorted by lower and by upper bound
+    //a lookup walks one root-to-leaf path and, at each node, reads only the ranges that contain x
+    static final class RangeNode<ParameterType> {
+
+        private final long center;
+        private final Rule<ParameterType>[] byFrom;//ascending lower bound
+        private final Rule<ParameterType>[] byTo;//descending upper bound
+        private final RangeNode<ParameterType> left;
+        private final RangeNode<ParameterType> right;
+
+        private RangeNode(long center, Rule<ParameterType>[] byFrom, Rule<ParameterType>[] byTo, RangeNode<ParameterType> left, RangeNode<ParameterType> right) {
+            this.center = center;
+            this.byFrom = byFrom;
+            this.byTo = byTo;
+            this.left = left;
+            this.right = right;
+        }
+
+        //the median endpoint lies in its own range, so every node keeps at least one rule and the recursion ends
+        @SuppressWarnings("unchecked")
+        static <ParameterType> RangeNode<ParameterType> build(List<Rule<ParameterType>> rules) {
+            if (rules.isEmpty()) return null;
+            long[] endpoints = new long[rules.size() * 2];
+            for (int i = 0; i < rules.size(); i++) {
+                endpoints[2 * i] = rules.get(i).discriminators[0].from;
+                endpoints[2 * i + 1] = rules.get(i).discriminators[0].to;
+            }
+            Arrays.sort(endpoints);
+            long center = endpoints[rules.size()];
+            List<Rule<ParameterType>> below = new ArrayList<>(), here = new ArrayList<>(), above = new ArrayList<>();
+            for (Rule<ParameterType> rule : rules) {
+                Discriminator<ParameterType> range = rule.discriminators[0];
+                if (range.to < center) below.add(rule);
+                else if (range.from > center) above.add(rule);
+                else here.add(rule);
+            }
+            Rule<ParameterType>[] byFrom = here.toArray((Rule<ParameterType>[]) new Rule<?>[0]);
+            Arrays.sort(byFrom, Comparator.comparingLong((Rule<ParameterType> r) -> r.discriminators[0].from));
+            Rule<ParameterType>[] byTo = here.toArray((Rule<ParameterType>[]) new Rule<?>[0]);
+            Arrays.sort(byTo, Comparator.comparingLong((Rule<ParameterType> r) -> r.discriminators[0].to).reversed());
+            return new RangeNode<>(center, byFrom, byTo, build(below), build(above));
+        }
+
+        //how many of this node's ranges contain x, read through rule(x, i)
+        int containing(long x) {
+            if (x == center) return byFrom.length;
+            int low = 0, high = byFrom.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (x < center ? byFrom[middle].discriminators[0].from <= x : byTo[middle].discriminators[0].to >= x) low = middle + 1;
+                else high = middle;
+            }
+            return low;
+        }
+
+        Rule<ParameterType> rule(long x, int i) {
+            return x <= center ? byFrom[i] : byTo[i];
+        }
+
+        RangeNode<ParameterType> next(long x) {
+            return x < center ? left : x > center ? right : null;
+        }
+    }
+}
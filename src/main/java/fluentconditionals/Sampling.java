@@ -0,0 +1,84 @@
+package fluentconditionals;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//conditions that let only some evaluations through, for when(shouldLog()).then(log) and the like
+//none of them takes a lock or allocates per evaluation, and none has a single counter every thread writes to
+//everyNth(..) and atMostPerSecond(..) carry state - keep them in static finals and pass them to when(..)
+public interface Sampling {
+
+    //true with the given probability, drawn from the calling thread's own random generator
+    final class Probability implements Condition {
+
+        private final long threshold;//out of 2^53, so the draw is a shift and a compare
+
+        Probability(double probability) {
+            if (!(probability >= 0 && probability <= 1)) throw new IllegalArgumentException("Probability must be within [0, 1]: " + probability);
+            this.threshold = (long) (probability * (1L << 53));
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            return ThreadLocalRandom.current().nextLong() >>> 11 < threshold;
+        }
+    }
+
+    //true for the first of every n evaluations, counted per stripe: threads hashed to different stripes never touch the same counter
+    //overall exactly one in n while a single thread calls it, one in n on average across threads
+    final class EveryNth implements Condition {
+
+        private static final int PADDING = 16;//longs per stripe, two cache lines so neighbours don't share one
+
+        private final long n;
+        private final AtomicLongArray counters;
+        private final int mask;
+
+        EveryNth(long n) {
+            if (n < 1) throw new IllegalArgumentException("N must be positive: " + n);
+            this.n = n;
+            int stripes = Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1);//twice the cores, rounded up to a power of two
+            this.counters = new AtomicLongArray(stripes * PADDING);
+            this.mask = stripes - 1;
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            return counters.getAndIncrement(stripe() * PADDING) % n == 0;
+        }
+
+        private int stripe() {
+            long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+            return (int) (id >>> 32) & mask;
+        }
+    }
+
+    //token bucket as a single "next permit due" timestamp (GCRA): refill is arithmetic on the clock, not a background task
+    //a rejection only reads the timestamp, so callers over the limit never contend - only the admitted few compare-and-set
+    final class RateLimit implements Condition {
+
+        private final long interval;//nanos between permits
+        private final long tolerance;//how far ahead of the clock the timestamp may run, (burst - 1) intervals
+        private final AtomicLong due;
+
+        RateLimit(double permitsPerSecond, int burst) {
+            if (!(permitsPerSecond > 0)) throw new IllegalArgumentException("Rate must be positive: " + permitsPerSecond);
+            if (burst < 1) throw new IllegalArgumentException("Burst must be positive: " + burst);
+            this.interval = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+            this.tolerance = (burst - 1) * interval;
+            this.due = new AtomicLong(System.nanoTime());
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            long now = System.nanoTime();
+            for (; ; ) {
+                long current = due.get();
+                if (current - now > tolerance) return false;
+                long next = (current - now > 0 ? current : now) + interval;//nanoTime may wrap, compare by difference
+                if (due.compareAndSet(current, next)) return true;
+            }
+        }
+    }
+}
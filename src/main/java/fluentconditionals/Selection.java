@@ -0,0 +1,186 @@
+package fluentconditionals;
+
+import java.util.Arrays;
+
+//the rows a Column condition held for, one bit per row packed 64 to a long
+//combine selections with and/or/andNot/not, then select(then, else) blends two columns without a branch per row
+//selections are immutable, every operation returns a new one
+public final class Selection {
+
+    private final long[] words;
+    private final int size;
+
+    Selection(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+    }
+
+    static long[] words(int size) {
+        return new long[(size + 63) >>> 6];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean get(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        return (words[row >>> 6] >>> row & 1) != 0;
+    }
+
+    public int count() {
+        int count = 0;
+        for (long word : words) count += Long.bitCount(word);
+        return count;
+    }
+
+    //selected rows in ascending order
+    public int[] indices() {
+        int[] indices = new int[count()];
+        int i = 0;
+        for (int w = 0; w < words.length; w++) {
+            for (long word = words[w]; word != 0; word &= word - 1) {
+                indices[i++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return indices;
+    }
+
+    //combining --------------------------------------------------------------------------------------------------------
+
+    public Selection and(Selection other) {
+        checkSize(other);
+        long[] result = new long[words.length];
+        for (int w = 0; w < result.length; w++) result[w] = words[w] & other.words[w];
+        return new Selection(result, size);
+    }
+
+    public Selection or(Selection other) {
+        checkSize(other);
+        long[] result = new long[words.length];
+        for (int w = 0; w < result.length; w++) result[w] = words[w] | other.words[w];
+        return new Selection(result, size);
+    }
+
+    public Selection andNot(Selection other) {
+        checkSize(other);
+        long[] result = new long[words.length];
+        for (int w = 0; w < result.length; w++) result[w] = words[w] & ~other.words[w];
+        return new Selection(result, size);
+    }
+
+    //bits past the last row stay clear, so count() never sees them
+    public Selection not() {
+        long[] result = new long[words.length];
+        for (int w = 0; w < result.length; w++) result[w] = ~words[w];
+        if ((size & 63) != 0) result[result.length - 1] &= -1L >>> (64 - (size & 63));
+        return new Selection(result, size);
+    }
+
+    private void checkSize(Selection other) {
+        if (other.size != size) throw new IllegalArgumentException("Selections over " + size + " and " + other.size + " rows can't be combined");
+    }
+
+    //blending: then-value for selected rows, else-value for the rest --------------------------------------------------
+    //int and long pick through a mask (-1 or 0 from the row's bit), double through a ternary the JIT turns into a cmov
+
+    public int[] select(int[] thenValues, int[] elseValues) {
+        checkLength(thenValues.length, elseValues.length);
+        int[] result = new int[size];
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            int base = w << 6, end = Math.min(64, size - base);
+            for (int b = 0; b < end; b++) {
+                int mask = -(int) (bits >>> b & 1);
+                result[base + b] = (thenValues[base + b] & mask) | (elseValues[base + b] & ~mask);
+            }
+        }
+        return result;
+    }
+
+    public int[] select(int thenValue, int elseValue) {
+        int[] result = new int[size];
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            int base = w << 6, end = Math.min(64, size - base);
+            for (int b = 0; b < end; b++) {
+                int mask = -(int) (bits >>> b & 1);
+                result[base + b] = (thenValue & mask) | (elseValue & ~mask);
+            }
+        }
+        return result;
+    }
+
+    public long[] select(long[] thenValues, long[] elseValues) {
+        checkLength(thenValues.length, elseValues.length);
+        long[] result = new long[size];
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            int base = w << 6, end = Math.min(64, size - base);
+            for (int b = 0; b < end; b++) {
+                long mask = -(bits >>> b & 1);
+                result[base + b] = (thenValues[base + b] & mask) | (elseValues[base + b] & ~mask);
+            }
+        }
+        return result;
+    }
+
+    public long[] select(long thenValue, long elseValue) {
+        long[] result = new long[size];
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            int base = w << 6, end = Math.min(64, size - base);
+            for (int b = 0; b < end; b++) {
+                long mask = -(bits >>> b & 1);
+                result[base + b] = (thenValue & mask) | (elseValue & ~mask);
+            }
+        }
+        return result;
+    }
+
+    public double[] select(double[] thenValues, double[] elseValues) {
+        checkLength(thenValues.length, elseValues.length);
+        double[] result = new double[size];
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            int base = w << 6, end = Math.min(64, size - base);
+            for (int b = 0; b < end; b++) {
+                result[base + b] = (bits >>> b & 1) != 0 ? thenValues[base + b] : elseValues[base + b];
+            }
+        }
+        return result;
+    }
+
+    public double[] select(double thenValue, double elseValue) {
+        double[] result = new double[size];
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            int base = w << 6, end = Math.min(64, size - base);
+            for (int b = 0; b < end; b++) {
+                result[base + b] = (bits >>> b & 1) != 0 ? thenValue : elseValue;
+            }
+        }
+        return result;
+    }
+
+    private void checkLength(int thenLength, int elseLength) {
+        if (thenLength != size || elseLength != size) {
+            throw new IllegalArgumentException("Expected columns of " + size + " rows, got " + thenLength + " and " + elseLength);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Selection && ((Selection) o).size == size && Arrays.equals(((Selection) o).words, words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return "Selection{" + count() + " of " + size + " rows}";
+    }
+}
@@ -0,0 +1,30 @@
+package fluentconditionals;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+//wakes threads parked in whenEventually(..) / awaitWhen(..) - call signalAll() after changing what they wait for
+public final class Signal {
+
+    private final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+
+    Signal() {
+    }
+
+    public void signalAll() {
+        for (Thread waiter : waiters) LockSupport.unpark(waiter);
+    }
+
+    public int waiting() {
+        return waiters.size();
+    }
+
+    void register() {
+        waiters.add(Thread.currentThread());
+    }
+
+    void unregister() {
+        waiters.remove(Thread.currentThread());
+    }
+}
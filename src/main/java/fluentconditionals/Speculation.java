@@ -0,0 +1,131 @@
+package fluentconditionals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+//runs both branches on the executor while the caller evaluates the condition, so a slow condition and a slow branch overlap
+//for side-effect-free branches only - the losing branch may well run to completion, its result is dropped
+//keep one per executor in a static final and pass it to thenReturn(..).speculative(..); the counters show what speculating costs
+public final class Speculation {
+
+    private final Executor executor;
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder wasted = new LongAdder();
+    private final LongAdder ranInline = new LongAdder();
+
+    Speculation(Executor executor) {
+        this.executor = executor;
+    }
+
+    //evaluations that speculated
+    public long evaluations() {
+        return evaluations.sum();
+    }
+
+    //losing branches withdrawn before the executor got to them
+    public long cancelled() {
+        return cancelled.sum();
+    }
+
+    //losing branches that were already running or done - work thrown away
+    public long wasted() {
+        return wasted.sum();
+    }
+
+    //winning branches the executor had not started yet, run by the caller instead of waiting in the queue
+    public long ranInline() {
+        return ranInline.sum();
+    }
+
+    //a branch the executor rejects is simply not speculated: it runs inline if it wins and never if it loses
+    <ReturnType> ReturnType evaluate(BooleanSupplier condition, Supplier<ReturnType> then, Supplier<ReturnType> otherwise) {
+        Branch<ReturnType> thenBranch = start(then);
+        Branch<ReturnType> elseBranch = start(otherwise);
+        if (thenBranch.queued || elseBranch.queued) evaluations.increment();
+        boolean holds;
+        try {
+            holds = condition.getAsBoolean();
+        } catch (RuntimeException | Error e) {
+            withdraw(thenBranch);
+            withdraw(elseBranch);
+            throw e;
+        }
+        withdraw(holds ? elseBranch : thenBranch);
+        return join(holds ? thenBranch : elseBranch);
+    }
+
+    //only the then branch is worth starting early, the negative path throws or fails
+    <ReturnType> Branch<ReturnType> speculateThen(Supplier<ReturnType> then) {
+        Branch<ReturnType> branch = start(then);
+        if (branch.queued) evaluations.increment();
+        return branch;
+    }
+
+    <ReturnType> ReturnType join(Branch<ReturnType> winner) {
+        if (winner.claim()) {
+            if (winner.queued) ranInline.increment();
+            winner.compute();
+        }
+        try {
+            return winner.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    void withdraw(Branch<?> loser) {
+        if (!loser.claim()) wasted.increment();
+        else if (loser.queued) cancelled.increment();
+    }
+
+    private <ReturnType> Branch<ReturnType> start(Supplier<ReturnType> supplier) {
+        Branch<ReturnType> branch = new Branch<>(supplier);
+        try {
+            executor.execute(branch);
+            branch.queued = true;
+        } catch (RejectedExecutionException e) {
+            //shut down or saturated - the branch stays unclaimed for the caller
+        }
+        return branch;
+    }
+
+    //whoever claims it first runs it: the executor, the caller (winner still queued) or nobody (loser withdrawn)
+    static final class Branch<ReturnType> extends CompletableFuture<ReturnType> implements Runnable {
+
+        private final Supplier<ReturnType> supplier;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        boolean queued;//caller thread only
+
+        Branch(Supplier<ReturnType> supplier) {
+            this.supplier = supplier;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public void run() {
+            if (claim()) compute();
+        }
+
+        void compute() {
+            try {
+                complete(supplier.get());
+            } catch (Throwable t) {
+                completeExceptionally(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package fluentconditionals;
+
+//cheap to throw: no stack trace is captured, no suppression list, and the message is formatted only when asked for
+//safe to preallocate in a static final and throw repeatedly, e.g. with orElseThrowE(..)
+public class StacklessException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String messageTemplate;
+    private final Object[] arguments;
+    private volatile String message;
+
+    public StacklessException(String messageTemplate, Object... arguments) {
+        super(null, null, false, false);
+        this.messageTemplate = messageTemplate;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public String getMessage() {
+        String formatted = message;
+        if (formatted == null) message = formatted = format(messageTemplate, arguments);
+        return formatted;
+    }
+
+    //"{}" placeholders are replaced by the arguments in order, surplus placeholders are left as they are
+    static String format(String template, Object[] arguments) {
+        if (template == null || arguments == null || arguments.length == 0) return template;
+        StringBuilder result = new StringBuilder(template.length() + 16 * arguments.length);
+        int from = 0, next = 0;
+        for (int at; next < arguments.length && (at = template.indexOf("{}", from)) >= 0; from = at + 2) {
+            result.append(template, from, at).append(arguments[next++]);
+        }
+        return result.append(template, from, template.length()).toString();
+    }
+}
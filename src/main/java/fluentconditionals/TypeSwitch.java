@@ -0,0 +1,112 @@
+package fluentconditionals;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+//type-based dispatch: whenInstanceOf(A.class).thenReturn(..).orWhenInstanceOf(B.class).thenReturn(..).orElse(..)
+//arms are matched in declaration order (subclasses and interfaces included); the winning arm is resolved once per
+//concrete class through a ClassValue, so routing costs one lookup however many arms there are
+public interface TypeSwitch<ReturnType> {
+
+    <T> TypeSwitchWhen<T, ReturnType> orWhenInstanceOf(Class<T> type);
+
+    <ParameterType> Function<ParameterType, ReturnType> orElse(Function<? super ParameterType, ? extends ReturnType> elseFunction);
+
+    default <ParameterType> Function<ParameterType, ReturnType> orElse(ReturnType value) {
+        return orElse(t -> value);
+    }
+
+    default <ParameterType> Function<ParameterType, ReturnType> orElseThrow(Function<String, ? extends RuntimeException> throwable, String exceptionMessage) {
+        return orElseThrow(() -> throwable.apply(exceptionMessage));
+    }
+
+    <ParameterType> Function<ParameterType, ReturnType> orElseThrow(Supplier<? extends RuntimeException> throwable);
+
+    interface TypeSwitchWhen<T, ReturnType> {
+        TypeSwitch<ReturnType> thenReturn(Function<? super T, ? extends ReturnType> function);
+    }
+
+    interface Start<T> {
+        <ReturnType> TypeSwitch<ReturnType> thenReturn(Function<? super T, ? extends ReturnType> function);
+
+        class Impl<T> implements Start<T> {
+
+            private final Class<T> type;
+
+            Impl(Class<T> type) {
+                this.type = type;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <ReturnType> TypeSwitch<ReturnType> thenReturn(Function<? super T, ? extends ReturnType> function) {
+                return new TypeSwitch.Impl<ReturnType>(new Class<?>[0], (Function<Object, ? extends ReturnType>[]) new Function<?, ?>[0]).arm(type, function);
+            }
+        }
+    }
+
+    class Impl<ReturnType> implements TypeSwitch<ReturnType> {
+
+        private final Class<?>[] types;
+        private final Function<Object, ? extends ReturnType>[] functions;
+
+        Impl(Class<?>[] types, Function<Object, ? extends ReturnType>[] functions) {
+            this.types = types;
+            this.functions = functions;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> Impl<ReturnType> arm(Class<T> type, Function<? super T, ? extends ReturnType> function) {
+            int arms = types.length;
+            Class<?>[] moreTypes = Arrays.copyOf(types, arms + 1);
+            Function<Object, ? extends ReturnType>[] moreFunctions = Arrays.copyOf(functions, arms + 1);
+            moreTypes[arms] = type;
+            moreFunctions[arms] = (Function<Object, ? extends ReturnType>) function;
+            return new Impl<>(moreTypes, moreFunctions);
+        }
+
+        @Override
+        public <T> TypeSwitchWhen<T, ReturnType> orWhenInstanceOf(Class<T> type) {
+            return function -> arm(type, function);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <ParameterType> Function<ParameterType, ReturnType> orElse(Function<? super ParameterType, ? extends ReturnType> elseFunction) {
+            return new Compiled<>(types, functions, (Function<Object, ? extends ReturnType>) elseFunction);
+        }
+
+        @Override
+        public <ParameterType> Function<ParameterType, ReturnType> orElseThrow(Supplier<? extends RuntimeException> throwable) {
+            return orElse(t -> {
+                throw throwable.get();
+            });
+        }
+    }
+
+    final class Compiled<ParameterType, ReturnType> implements Function<ParameterType, ReturnType> {
+
+        private final Function<Object, ? extends ReturnType> elseFunction;
+        private final ClassValue<Function<Object, ? extends ReturnType>> routes;
+
+        Compiled(Class<?>[] types, Function<Object, ? extends ReturnType>[] functions, Function<Object, ? extends ReturnType> elseFunction) {
+            this.elseFunction = elseFunction;
+            this.routes = new ClassValue<Function<Object, ? extends ReturnType>>() {
+                @Override
+                protected Function<Object, ? extends ReturnType> computeValue(Class<?> type) {
+                    for (int i = 0; i < types.length; i++) {
+                        if (types[i].isAssignableFrom(type)) return functions[i];
+                    }
+                    return elseFunction;
+                }
+            };
+        }
+
+        @Override
+        public ReturnType apply(ParameterType parameter) {
+            if (parameter == null) return elseFunction.apply(null);
+            return routes.get(parameter.getClass()).apply(parameter);
+        }
+    }
+}
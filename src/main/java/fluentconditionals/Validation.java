@@ -0,0 +1,162 @@
+package fluentconditionals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+//accumulating validation: every when(..).thenFail(..) check runs, all violations are reported together
+//validate(target) checks one object; validator(type) compiles the checks once into a reusable, thread-safe Validator
+public interface Validation<TargetType, Self extends Validation<TargetType, Self>> {
+
+    ValidationWhen<TargetType, Self> when(Predicate<TargetType> violated);
+
+    //independent, expensive checks: evaluate them concurrently on the common fork/join pool
+    Self parallel();
+
+    interface ValidationWhen<TargetType, Self> {
+        Self thenFail(String messageTemplate);
+
+        Self thenFail(String messageTemplate, Function<TargetType, ?> argument);
+    }
+
+    interface Bound<TargetType> extends Validation<TargetType, Bound<TargetType>> {
+
+        //empty when valid
+        List<Failure> failures();
+
+        void throwIfInvalid() throws ValidationException;
+
+        class Impl<TargetType> extends Checks<TargetType, Bound<TargetType>> implements Bound<TargetType> {
+
+            private final TargetType target;
+
+            Impl(TargetType target) {
+                this.target = target;
+            }
+
+            @Override
+            public List<Failure> failures() {
+                return build().failures(target);
+            }
+
+            @Override
+            public void throwIfInvalid() {
+                build().check(target);
+            }
+        }
+    }
+
+    interface Unbound<TargetType> extends Validation<TargetType, Unbound<TargetType>> {
+
+        Validator<TargetType> build();
+
+        class Impl<TargetType> extends Checks<TargetType, Unbound<TargetType>> implements Unbound<TargetType> {
+        }
+    }
+
+    abstract class Checks<TargetType, Self extends Validation<TargetType, Self>> implements Validation<TargetType, Self> {
+
+        private final List<Predicate<TargetType>> checks = new ArrayList<>();
+        private final List<String> templates = new ArrayList<>();
+        private final List<Function<TargetType, ?>> arguments = new ArrayList<>();
+        private boolean parallel;
+
+        @Override
+        public ValidationWhen<TargetType, Self> when(Predicate<TargetType> violated) {
+            return new When<>(this, violated);
+        }
+
+        @Override
+        public Self parallel() {
+            parallel = true;
+            return self();
+        }
+
+        @SuppressWarnings("unchecked")
+        private Self self() {
+            return (Self) this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public Validator<TargetType> build() {
+            return new Validator<>(checks.toArray((Predicate<TargetType>[]) new Predicate<?>[0]), templates.toArray(new String[0]), arguments.toArray((Function<TargetType, ?>[]) new Function<?, ?>[0]), parallel);
+        }
+
+        private static final class When<TargetType, Self extends Validation<TargetType, Self>> implements ValidationWhen<TargetType, Self> {
+
+            private final Checks<TargetType, Self> checks;
+            private final Predicate<TargetType> violated;
+
+            When(Checks<TargetType, Self> checks, Predicate<TargetType> violated) {
+                this.checks = checks;
+                this.violated = violated;
+            }
+
+            @Override
+            public Self thenFail(String messageTemplate) {
+                return thenFail(messageTemplate, null);
+            }
+
+            @Override
+            public Self thenFail(String messageTemplate, Function<TargetType, ?> argument) {
+                checks.checks.add(violated);
+                checks.templates.add(messageTemplate);
+                checks.arguments.add(argument);
+                return checks.self();
+            }
+        }
+    }
+
+    final class Validator<TargetType> {
+
+        private final Predicate<TargetType>[] checks;
+        private final String[] templates;
+        private final Function<TargetType, ?>[] arguments;
+        private final boolean parallel;
+
+        Validator(Predicate<TargetType>[] checks, String[] templates, Function<TargetType, ?>[] arguments, boolean parallel) {
+            this.checks = checks;
+            this.templates = templates;
+            this.arguments = arguments;
+            this.parallel = parallel;
+        }
+
+        //empty when valid - the sequential pass allocates nothing until the first violation
+        public List<Failure> failures(TargetType target) {
+            if (parallel) {
+                return IntStream.range(0, checks.length).parallel()
+                        .filter(i -> checks[i].test(target))
+                        .mapToObj(i -> failure(i, target))
+                        .collect(Collectors.toList());
+            }
+            List<Failure> failures = null;
+            for (int i = 0; i < checks.length; i++) {
+                if (checks[i].test(target)) {
+                    if (failures == null) failures = new ArrayList<>();
+                    failures.add(failure(i, target));
+                }
+            }
+            return failures == null ? Collections.emptyList() : failures;
+        }
+
+        public void check(TargetType target) throws ValidationException {
+            List<Failure> failures = failures(target);
+            if (!failures.isEmpty()) throw new ValidationException(failures);
+        }
+
+        public boolean isValid(TargetType target) {
+            return failures(target).isEmpty();
+        }
+
+        private Failure failure(int check, TargetType target) {
+            Function<TargetType, ?> argument = arguments[check];
+            return argument == null
+                    ? new Failure(templates[check], null)
+                    : new Failure(templates[check], new Object[]{argument.apply(target)});
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package fluentconditionals;
+
+import java.util.List;
+
+//all violations found in one validation pass
+public class ValidationException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Failure> failures;
+
+    public ValidationException(List<Failure> failures) {
+        super(null, null, false, true);
+        this.failures = failures;
+    }
+
+    public List<Failure> failures() {
+        return failures;
+    }
+
+    @Override
+    public String getMessage() {
+        StringBuilder message = new StringBuilder(failures.size() == 1 ? "1 violation" : failures.size() + " violations");
+        for (Failure failure : failures) message.append("\n - ").append(failure.message());
+        return message.toString();
+    }
+}
@@ -0,0 +1,144 @@
+package fluentconditionals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+//non-blocking conditionals: the condition and the chosen branch run on the executor, the caller only gets a CompletionStage
+//nothing runs until orElse/orElseAsync/orElseThrow is called, same as the synchronous chains
+public interface WhenAsync {
+
+    //virtual thread per task where the runtime has them, common fork/join pool otherwise
+    Executor DEFAULT_EXECUTOR = Impl.defaultExecutor();
+
+    WhenAsyncThenExecute then(Runnable action);
+
+    <ReturnType> WhenAsyncThenReturn<ReturnType> thenReturnAsync(Supplier<? extends CompletionStage<ReturnType>> supplier);
+
+    default <ReturnType> WhenAsyncThenReturn<ReturnType> thenReturn(Supplier<ReturnType> supplier) {
+        return thenReturnAsync(() -> CompletableFuture.completedFuture(supplier.get()));
+    }
+
+    class Impl implements WhenAsync {
+
+        private final Supplier<? extends CompletionStage<Boolean>> condition;
+        private final Executor executor;
+
+        Impl(Supplier<? extends CompletionStage<Boolean>> condition, Executor executor) {
+            this.condition = condition;
+            this.executor = executor;
+        }
+
+        @Override
+        public WhenAsyncThenExecute then(Runnable action) {
+            return new WhenAsyncThenExecute.Impl(this, action);
+        }
+
+        @Override
+        public <ReturnType> WhenAsyncThenReturn<ReturnType> thenReturnAsync(Supplier<? extends CompletionStage<ReturnType>> supplier) {
+            return new WhenAsyncThenReturn.Impl<>(this, supplier);
+        }
+
+        <ReturnType> CompletionStage<ReturnType> evaluate(Supplier<? extends CompletionStage<ReturnType>> happyPath, Supplier<? extends CompletionStage<ReturnType>> negativePath) {
+            return CompletableFuture.supplyAsync(condition, executor)
+                    .thenCompose(Function.identity())
+                    .thenComposeAsync(holds -> holds ? happyPath.get() : negativePath.get(), executor);
+        }
+
+        static <ReturnType> CompletionStage<ReturnType> failed(Throwable throwable) {
+            CompletableFuture<ReturnType> failed = new CompletableFuture<>();
+            failed.completeExceptionally(throwable);
+            return failed;
+        }
+
+        //looked up reflectively, virtual threads are Java 21+ and the library targets Java 11
+        static Executor defaultExecutor() {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return ForkJoinPool.commonPool();
+            }
+        }
+    }
+
+    interface WhenAsyncThenExecute {
+        CompletionStage<Void> orElse(Runnable elseAction);
+
+        default <ExceptionType extends Throwable> CompletionStage<Void> orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
+
+        //the returned stage completes exceptionally, nothing is thrown to the caller
+        <ExceptionType extends Throwable> CompletionStage<Void> orElseThrow(Supplier<ExceptionType> throwable);
+
+        class Impl implements WhenAsyncThenExecute {
+
+            private final WhenAsync.Impl when;
+            private final Runnable action;
+
+            Impl(WhenAsync.Impl when, Runnable action) {
+                this.when = when;
+                this.action = action;
+            }
+
+            @Override
+            public CompletionStage<Void> orElse(Runnable elseAction) {
+                return when.evaluate(() -> run(action), () -> run(elseAction));
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> CompletionStage<Void> orElseThrow(Supplier<ExceptionType> throwable) {
+                return when.evaluate(() -> run(action), () -> WhenAsync.Impl.failed(throwable.get()));
+            }
+
+            private static CompletionStage<Void> run(Runnable action) {
+                action.run();
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+    }
+
+    interface WhenAsyncThenReturn<ReturnType> {
+        CompletionStage<ReturnType> orElseAsync(Supplier<? extends CompletionStage<ReturnType>> elseSupplier);
+
+        default CompletionStage<ReturnType> orElse(Supplier<ReturnType> elseSupplier) {
+            return orElseAsync(() -> CompletableFuture.completedFuture(elseSupplier.get()));
+        }
+
+        default CompletionStage<ReturnType> orElse(ReturnType elseValue) {
+            return orElseAsync(() -> CompletableFuture.completedFuture(elseValue));
+        }
+
+        default <ExceptionType extends Throwable> CompletionStage<ReturnType> orElseThrow(Function<String, ExceptionType> throwable, String exceptionMessage) {
+            return orElseThrow(() -> throwable.apply(exceptionMessage));
+        }
+
+        //the returned stage completes exceptionally, nothing is thrown to the caller
+        <ExceptionType extends Throwable> CompletionStage<ReturnType> orElseThrow(Supplier<ExceptionType> throwable);
+
+        class Impl<ReturnType> implements WhenAsyncThenReturn<ReturnType> {
+
+            private final WhenAsync.Impl when;
+            private final Supplier<? extends CompletionStage<ReturnType>> supplier;
+
+            Impl(WhenAsync.Impl when, Supplier<? extends CompletionStage<ReturnType>> supplier) {
+                this.when = when;
+                this.supplier = supplier;
+            }
+
+            @Override
+            public CompletionStage<ReturnType> orElseAsync(Supplier<? extends CompletionStage<ReturnType>> elseSupplier) {
+                return when.evaluate(supplier, elseSupplier);
+            }
+
+            @Override
+            public <ExceptionType extends Throwable> CompletionStage<ReturnType> orElseThrow(Supplier<ExceptionType> throwable) {
+                return when.evaluate(supplier, () -> WhenAsync.Impl.failed(throwable.get()));
+            }
+        }
+    }
+}